@@ -0,0 +1,62 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: This module finds a shortest path between a single source
+ * and a single target with the A* algorithm, using the straight line
+ * distance to the target as a lower bound.
+ */
+
+package graph;
+
+/**
+ * @brief Reusable single source, single target A* search
+ * @detail Edge weights are great-circle distances, so the great-circle distance
+ * from a vertex to the target is never more than the length of any path between
+ * them. Ordering vertices by distance from the source plus that bound makes the
+ * search expand towards the target instead of in every direction, while still
+ * finding a shortest path. One instance should only be used by one thread at a time.
+ */
+public class AStarSP extends PointToPointSP {
+    private static final double ROUNDING = 1e-5; // edge weights are rounded to 5 decimals, keep the bound below them
+    private double targetLat; // latitude of the target of the current search
+    private double targetLon; // longitude of the target of the current search
+
+    /**
+     * @brief Constructor for AStarSP
+     * @param capacity number of vertices of the largest expected graph, grown if needed
+     */
+    public AStarSP(int capacity) {
+        super(capacity);
+    }
+
+    /**
+     * @brief Find a shortest path from s to t in G
+     * @param G the graph to search, every vertex must map to a restaurant
+     * @param s the source vertex
+     * @param t the target vertex
+     * @return true if there is a path from s to t
+     * @throws IllegalArgumentException if s or t is not a vertex of G
+     */
+    public boolean search(WeightedGraph G, int s, int t) {
+        if (t >= 0 && t < G.V()) {
+            Restaurant target = G.revMap(t);
+            targetLat = target.lat();
+            targetLon = target.lon();
+        }
+        return super.search(G, s, t);
+    }
+
+    /**
+     * @brief order vertices by distance from the source plus straight line distance to the target
+     * @param G the graph being searched
+     * @param v the vertex
+     * @param dist the distance of the shortest path from the source to v found so far
+     * @return the priority of v
+     */
+    protected double priority(WeightedGraph G, int v, double dist) {
+        Restaurant r = G.revMap(v);
+        double h = Distance.distance(r.lat(), r.lon(), targetLat, targetLon) - ROUNDING;
+        return h > 0 ? dist + h : dist;
+    }
+}
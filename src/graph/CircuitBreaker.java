@@ -0,0 +1,74 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: This module stops calls to a failing service for a while,
+ * so callers fail fast instead of waiting on it.
+ */
+
+package graph;
+
+/**
+ * @brief Circuit breaker in front of a remote service.
+ * @detail The circuit is closed while calls succeed. After a number of failures
+ * in a row it opens and calls are refused until a cool down has passed. Then one
+ * trial call is let through: if it succeeds the circuit closes again, if it fails
+ * the circuit stays open for another cool down.
+ * All methods are safe to call from several threads.
+ */
+public class CircuitBreaker {
+
+	private final int threshold;	// failures in a row that open the circuit
+	private final long coolDown;	// milliseconds the circuit stays open
+	private int failures;			// failures in a row
+	private long openedAt;			// when the circuit opened
+	private boolean trial;			// true while the trial call of an open circuit runs
+
+	/**
+	 * @brief Constructor for CircuitBreaker
+	 * @param threshold number of failures in a row that open the circuit
+	 * @param coolDown milliseconds the circuit stays open before a trial call
+	 */
+	public CircuitBreaker(int threshold, long coolDown) {
+		this.threshold = threshold;
+		this.coolDown = coolDown;
+	}
+
+	/**
+	 * @brief Return whether a call may be made now.
+	 * @detail A caller that is allowed must report the outcome with success or failure,
+	 * whatever the call throws, or the circuit stays open after a trial call.
+	 * @return True if the circuit is closed, or if this is the trial call of an open circuit.
+	 */
+	public synchronized boolean allow() {
+		if (failures < threshold) return true;
+		if (trial || System.currentTimeMillis() - openedAt < coolDown) return false;
+		trial = true;
+		return true;
+	}
+
+	/**
+	 * @brief Report a call that succeeded, which closes the circuit.
+	 */
+	public synchronized void success() {
+		failures = 0;
+		trial = false;
+	}
+
+	/**
+	 * @brief Report a call that failed.
+	 */
+	public synchronized void failure() {
+		failures++;
+		if (failures >= threshold) openedAt = System.currentTimeMillis();
+		trial = false;
+	}
+
+	/**
+	 * @brief Return whether calls are being refused.
+	 * @return True if the circuit is open.
+	 */
+	public synchronized boolean isOpen() {
+		return failures >= threshold;
+	}
+}
@@ -0,0 +1,191 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: This module stores an edge weighted graph in compressed
+ * sparse row form, using primitive arrays instead of edge objects.
+ */
+
+package graph;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import edu.princeton.cs.algs4.Edge;
+
+/**
+ * @brief An immutable undirected edge weighted graph in compressed sparse row form
+ * @detail The edges incident on vertex v are stored in slots offsets[v] to
+ * offsets[v + 1] - 1 of the targets and weights arrays. Each undirected edge is
+ * stored once from each end. Since the graph never changes after it is built it
+ * can be shared between threads.
+ */
+public class CompactGraph implements WeightedGraph {
+    private final int V;
+    private final int E;
+    private final int[] offsets;       // offsets[v] = first slot of v, offsets[V] = 2E
+    private final int[] targets;       // targets[i] = other end of the edge in slot i
+    private final double[] weights;    // weights[i] = weight of the edge in slot i
+    private final Restaurant[] map;    // map[v] = restaurant of vertex v
+    private final double[] lat;        // lat[v] = latitude of vertex v
+    private final double[] lon;        // lon[v] = longitude of vertex v
+    private final double[] cosLat;     // cosLat[v] = cosine of the latitude of vertex v
+    private final HashMap<Restaurant, Integer> revMap;
+
+    /**
+     * @brief Build a compact copy of an edge weighted graph
+     * @param G the graph to copy
+     * @throws IllegalArgumentException if an edge weight is negative
+     */
+    public CompactGraph(EdgeWeightedGraph G) {
+        V = G.V();
+        E = G.E();
+        offsets = new int[V + 1];
+        targets = new int[2 * E];
+        weights = new double[2 * E];
+        map = new Restaurant[V];
+        revMap = new HashMap<Restaurant, Integer>();
+        lat = new double[V];
+        lon = new double[V];
+
+        //count the degree of each vertex, then turn the counts into offsets
+        for (int v = 0; v < V; v++) {
+            for (Edge e : G.adj(v)) {
+                offsets[v + 1]++;
+            }
+        }
+        for (int v = 0; v < V; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        for (int v = 0; v < V; v++) {
+            int slot = offsets[v];
+            for (Edge e : G.adj(v)) {
+                if (e.weight() < 0)
+                    throw new IllegalArgumentException("edge " + e + " has negative weight");
+                targets[slot] = e.other(v);
+                weights[slot] = e.weight();
+                slot++;
+            }
+            map[v] = G.revMap(v);
+            if (map[v] != null) {
+                revMap.put(map[v], v);
+                lat[v] = map[v].lat();
+                lon[v] = map[v].lon();
+            }
+        }
+        cosLat = Distance.cosines(lat);
+    }
+
+    /**
+     * @brief return the number of vertices in graph
+     * @return the number of vertices in this graph
+     */
+    public int V() {
+        return V;
+    }
+
+    /**
+     * @brief return the number of edges in graph
+     * @return the number of edges in this graph
+     */
+    public int E() {
+        return E;
+    }
+
+    /**
+     * @brief return the number of edges incident on a vertex
+     * @param v the vertex
+     * @return the degree of v
+     */
+    public int degree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    /**
+     * @brief return the other end of the i-th edge incident on a vertex
+     * @param v the vertex
+     * @param i index of the edge, between 0 and degree(v) - 1
+     * @return the vertex at the other end of the edge
+     */
+    public int other(int v, int i) {
+        return targets[offsets[v] + i];
+    }
+
+    /**
+     * @brief return the weight of the i-th edge incident on a vertex
+     * @param v the vertex
+     * @param i index of the edge, between 0 and degree(v) - 1
+     * @return the weight of the edge
+     */
+    public double weight(int v, int i) {
+        return weights[offsets[v] + i];
+    }
+
+    /**
+     * @brief get the vertex of a restaurant
+     * @param  key Restaurant that maps to integer
+     * @return corresponding integer
+     */
+    public Integer map(Restaurant key) {
+        return revMap.get(key);
+    }
+
+    /**
+     * @brief get the restaurant of a vertex
+     * @param  key integer that maps to restaurant
+     * @return corresponding restaurant
+     */
+    public Restaurant revMap(int key) {
+        return map[key];
+    }
+
+    /**
+     * @brief Calculate the distance from a point to every vertex
+     * @param lat latitude of the point
+     * @param lon longitude of the point
+     * @param out out[v] is set to the distance between the point and vertex v
+     */
+    public void distancesFrom(double lat, double lon, double[] out) {
+        Distance.distances(lat, lon, this.lat, this.lon, cosLat, out);
+    }
+
+    /**
+     * @brief create iterable with all edges graph.
+     * @detail Edges are created as they are iterated, each edge is returned once
+     * from its smaller end.
+     * @return all edges in this graph, as an iterable
+     */
+    public Iterable<Edge> edges() {
+        return new Iterable<Edge>() {
+            public Iterator<Edge> iterator() {
+                return new Iterator<Edge>() {
+                    private int v = 0;
+                    private int slot = advance(0);
+
+                    private int advance(int i) {
+                        for (; i < targets.length; i++) {
+                            while (i >= offsets[v + 1]) v++;
+                            if (targets[i] >= v) return i; //self loops are stored twice, one copy is skipped below
+                        }
+                        return i;
+                    }
+
+                    public boolean hasNext() {
+                        return slot < targets.length;
+                    }
+
+                    public Edge next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        Edge e = new Edge(v, targets[slot], weights[slot]);
+                        if (targets[slot] == v) slot++; //skip the second copy of a self loop
+                        slot = advance(slot + 1);
+                        return e;
+                    }
+                };
+            }
+        };
+    }
+
+}
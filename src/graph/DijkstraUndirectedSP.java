@@ -12,6 +12,7 @@ import java.util.Stack;
 
 import edu.princeton.cs.algs4.*;
 import graph.EdgeWeightedGraph;
+import graph.WeightedGraph;
 
 /**
  * @brief This class will have methods for a shortest path
@@ -19,38 +20,49 @@ import graph.EdgeWeightedGraph;
  */
 public class DijkstraUndirectedSP {
     private double[] distTo;          // distTo[v] = distance  of shortest s->v path
-    private Edge[] edgeTo;            // edgeTo[v] = last edge on shortest s->v path
-    private IndexMinPQ<Double> pq;    // priority queue of vertices
+    private int[] vertexTo;           // vertexTo[v] = previous vertex on shortest s->v path, -1 if none
+    private double[] weightTo;        // weightTo[v] = weight of the last edge on shortest s->v path
+    private DoubleIndexMinPQ pq;      // priority queue of vertices
 
     /**
      * @brief Computes a shortest-paths tree from the source vertex  to every
      * other vertex in provided graph.
-     * @param  G the edge-weighted digraph
+     * @param  G the edge-weighted graph
      * @param  s the source vertex
      * @throws IllegalArgumentException if an edge weight is negative
      */
     public DijkstraUndirectedSP(EdgeWeightedGraph G, int s) {
-        for (Edge e : G.edges()) {
-            if (e.weight() < 0)
-                throw new IllegalArgumentException("edge " + e + " has negative weight");
-        }
+        this(G.compact(), s);
+    }
+
+    /**
+     * @brief Computes a shortest-paths tree from the source vertex  to every
+     * other vertex in provided graph.
+     * @detail edge weights are checked to be nonnegative when a CompactGraph is built
+     * @param  G the edge-weighted graph
+     * @param  s the source vertex
+     */
+    public DijkstraUndirectedSP(WeightedGraph G, int s) {
 
         distTo = new double[G.V()];
-        edgeTo = new Edge[G.V()];
+        vertexTo = new int[G.V()];
+        weightTo = new double[G.V()];
         
         validateVertex(s);
 
-        for (int v = 0; v < G.V(); v++)
+        for (int v = 0; v < G.V(); v++) {
             distTo[v] = Double.POSITIVE_INFINITY;
+            vertexTo[v] = -1;
+        }
         distTo[s] = 0.0;
 
         // relax vertices in order of distance from s
-        pq = new IndexMinPQ<Double>(G.V());
+        pq = new DoubleIndexMinPQ(G.V());
         pq.insert(s, distTo[s]);
         while (!pq.isEmpty()) {
             int v = pq.delMin();
-            for (Edge e : G.adj(v))
-                relax(e, v);
+            for (int i = 0, d = G.degree(v); i < d; i++)
+                relax(v, G.other(v, i), G.weight(v, i));
         }
 
         // check optimality conditions
@@ -58,15 +70,16 @@ public class DijkstraUndirectedSP {
     }
 
     /**
-     * @brief relax edge e and update pq if changed
-     * @param  e edge
+     * @brief relax edge v-w and update pq if changed
      * @param  v vertex to relax
+     * @param  w other end of the edge
+     * @param  weight weight of the edge
      */
-    private void relax(Edge e, int v) {
-        int w = e.other(v);
-        if (distTo[w] > distTo[v] + e.weight()) {
-            distTo[w] = distTo[v] + e.weight();
-            edgeTo[w] = e;
+    private void relax(int v, int w, double weight) {
+        if (distTo[w] > distTo[v] + weight) {
+            distTo[w] = distTo[v] + weight;
+            vertexTo[w] = v;
+            weightTo[w] = weight;
             if (pq.contains(w)) pq.decreaseKey(w, distTo[w]);
             else                pq.insert(w, distTo[w]);
         }
@@ -101,6 +114,8 @@ public class DijkstraUndirectedSP {
     /**
      * @brief create stack of edges which contains a shortest path between the 
      * source vertex and input vertex
+     * @detail each edge is created from the end closer to the source, so either()
+     * of the top edge is the source vertex
      * @param  v the destination vertex
      * @return a shortest path between the source vertex and vertex input in a stack
      * of edges
@@ -110,10 +125,8 @@ public class DijkstraUndirectedSP {
         validateVertex(v);
         if (!hasPathTo(v)) return null;
         Stack<Edge> path = new Stack<Edge>();
-        int x = v;
-        for (Edge e = edgeTo[v]; e != null; e = edgeTo[x]) {
-            path.push(e);
-            x = e.other(x);
+        for (int x = v; vertexTo[x] != -1; x = vertexTo[x]) {
+            path.push(new Edge(vertexTo[x], x, weightTo[x]));
         }
         return path;
     }
@@ -126,35 +139,37 @@ public class DijkstraUndirectedSP {
      * @param s source vertex integer
      * @return Boolean value based on check conditions
      */
-    private boolean check(EdgeWeightedGraph G, int s) {
+    private boolean check(WeightedGraph G, int s) {
 
         // check that edge weights are nonnegative
-        for (Edge e : G.edges()) {
-            if (e.weight() < 0) {
-                System.err.println("negative edge weight detected");
-                return false;
+        for (int v = 0; v < G.V(); v++) {
+            for (int i = 0, d = G.degree(v); i < d; i++) {
+                if (G.weight(v, i) < 0) {
+                    System.err.println("negative edge weight detected");
+                    return false;
+                }
             }
         }
 
-        // check that distTo[v] and edgeTo[v] are consistent
-        if (distTo[s] != 0.0 || edgeTo[s] != null) {
-            System.err.println("distTo[s] and edgeTo[s] inconsistent");
+        // check that distTo[v] and vertexTo[v] are consistent
+        if (distTo[s] != 0.0 || vertexTo[s] != -1) {
+            System.err.println("distTo[s] and vertexTo[s] inconsistent");
             return false;
         }
         for (int v = 0; v < G.V(); v++) {
             if (v == s) continue;
-            if (edgeTo[v] == null && distTo[v] != Double.POSITIVE_INFINITY) {
-                System.err.println("distTo[] and edgeTo[] inconsistent");
+            if (vertexTo[v] == -1 && distTo[v] != Double.POSITIVE_INFINITY) {
+                System.err.println("distTo[] and vertexTo[] inconsistent");
                 return false;
             }
         }
 
         // check that all edges e = v-w satisfy distTo[w] <= distTo[v] + e.weight()
         for (int v = 0; v < G.V(); v++) {
-            for (Edge e : G.adj(v)) {
-                int w = e.other(v);
-                if (distTo[v] + e.weight() < distTo[w]) {
-                    System.err.println("edge " + e + " not relaxed");
+            for (int i = 0, d = G.degree(v); i < d; i++) {
+                int w = G.other(v, i);
+                if (distTo[v] + G.weight(v, i) < distTo[w]) {
+                    System.err.println("edge " + v + "-" + w + " not relaxed");
                     return false;
                 }
             }
@@ -162,12 +177,10 @@ public class DijkstraUndirectedSP {
 
         // check that all edges e = v-w on SPT satisfy distTo[w] == distTo[v] + e.weight()
         for (int w = 0; w < G.V(); w++) {
-            if (edgeTo[w] == null) continue;
-            Edge e = edgeTo[w];
-            if (w != e.either() && w != e.other(e.either())) return false;
-            int v = e.other(w);
-            if (distTo[v] + e.weight() != distTo[w]) {
-                System.err.println("edge " + e + " on shortest path not tight");
+            if (vertexTo[w] == -1) continue;
+            int v = vertexTo[w];
+            if (distTo[v] + weightTo[w] != distTo[w]) {
+                System.err.println("edge " + v + "-" + w + " on shortest path not tight");
                 return false;
             }
         }
@@ -185,4 +198,4 @@ public class DijkstraUndirectedSP {
             throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
     }
     
-}
\ No newline at end of file
+}
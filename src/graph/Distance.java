@@ -37,10 +37,70 @@ public class Distance {
 		
 		double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
 		
-		double distance = EARTH_RADIUS * c;
-		String strDouble = String.format("%.5f", distance); //round the resulting distance to 5 decimal numbers
-		return Double.parseDouble(strDouble); //return string to double
+		return round(EARTH_RADIUS * c); //round the resulting distance to 5 decimal numbers
 	}
-	
+
+	/**
+     * @brief Calculates the distance from one point to many points
+     * @detail Same formula and rounding as distance, but the cosine of each
+     * latitude in the arrays is computed once by the caller with cosines and
+     * reused, and nothing is allocated.
+     * @param lat latitude of the point
+     * @param lon longitude of the point
+     * @param lats latitudes of the other points
+     * @param lons longitudes of the other points
+     * @param cosLats cosines of the latitudes of the other points, from cosines(lats)
+     * @param out out[i] is set to the distance between the point and point i
+     */
+	public static void distances(double lat, double lon, double[] lats, double[] lons, double[] cosLats, double[] out) {
+		double cosPhi = Math.cos(Math.toRadians(lat));
+		for (int i = 0; i < lats.length; i++) {
+			double sinLat = Math.sin(Math.toRadians(lats[i] - lat) / 2);
+			double sinLon = Math.sin(Math.toRadians(lons[i] - lon) / 2);
+			double a = sinLat * sinLat + cosPhi * cosLats[i] * sinLon * sinLon;
+			out[i] = round(EARTH_RADIUS * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a)));
+		}
+	}
+
+	/**
+     * @brief Calculates the cosine of each latitude, for use with distances
+     * @param lats latitudes in degrees
+     * @return array of the cosines of the latitudes
+     */
+	public static double[] cosines(double[] lats) {
+		double[] cos = new double[lats.length];
+		for (int i = 0; i < lats.length; i++) {
+			cos[i] = Math.cos(Math.toRadians(lats[i]));
+		}
+		return cos;
+	}
+
+	/**
+     * @brief Approximates the distance between two set of latitude and longitude points
+     * @detail Treats the earth as flat around the two points (equirectangular
+     * projection). This is cheaper than distance and within a fraction of a percent
+     * of it for points a few dozen kilometres apart, but is not rounded and may be
+     * slightly longer than the true distance, so it is not a lower bound.
+     * @param lat1 latitude 1
+     * @param long1 longitude 1
+     * @param lat2 latitude 2
+     * @param long2 longitude 2
+     * @return approximate distance between two input points
+     */
+	public static double approximateDistance(double lat1, double long1, double lat2, double long2) {
+		double x = Math.toRadians(long2 - long1) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+		double y = Math.toRadians(lat2 - lat1);
+		return EARTH_RADIUS * Math.sqrt(x * x + y * y);
+	}
+
+	/**
+     * @brief Round a distance to 5 decimal numbers
+     * @param distance distance to round
+     * @return the rounded distance
+     */
+	private static double round(double distance) {
+		return Math.round(distance * 1e5) / 1e5;
+	}
+
 
 }
@@ -0,0 +1,148 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: This module is an indexed priority queue with primitive
+ * double keys. Adapted from IndexMinPQ in Algorithms 4th ed. by Robert
+ * Segdewick
+ */
+
+package graph;
+
+import java.util.NoSuchElementException;
+
+/**
+ * @brief Indexed binary min heap of the integers 0 to n - 1 keyed on doubles
+ * @detail Unlike IndexMinPQ<Double> keys are never boxed, and the queue can be
+ * cleared in time proportional to its size so it can be reused between searches.
+ */
+public class DoubleIndexMinPQ {
+    private int n;              // number of elements on PQ
+    private int[] pq;           // binary heap using 1-based indexing
+    private int[] qp;           // inverse of pq: qp[pq[i]] = pq[qp[i]] = i, -1 if not on PQ
+    private double[] keys;      // keys[i] = priority of i
+
+    /**
+     * @brief Initializes an empty indexed priority queue with indices between 0 and max - 1
+     * @param max the indices are between 0 and max - 1
+     * @throws IllegalArgumentException if max < 0
+     */
+    public DoubleIndexMinPQ(int max) {
+        if (max < 0) throw new IllegalArgumentException("Capacity must be nonnegative");
+        pq = new int[max + 1];
+        qp = new int[max];
+        keys = new double[max];
+        for (int i = 0; i < max; i++)
+            qp[i] = -1;
+    }
+
+    /**
+     * @brief return the largest index plus one this queue can hold
+     * @return the capacity of the queue
+     */
+    public int capacity() {
+        return qp.length;
+    }
+
+    /**
+     * @brief Returns true if this priority queue is empty
+     * @return true if this priority queue is empty
+     */
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    /**
+     * @brief Is i an index on this priority queue?
+     * @param i an index
+     * @return true if i is an index on this priority queue
+     */
+    public boolean contains(int i) {
+        return qp[i] != -1;
+    }
+
+    /**
+     * @brief Associates key with index i
+     * @param i an index
+     * @param key the key to associate with index i
+     * @throws IllegalArgumentException if there already is an item associated with index i
+     */
+    public void insert(int i, double key) {
+        if (contains(i)) throw new IllegalArgumentException("index is already in the priority queue");
+        n++;
+        qp[i] = n;
+        pq[n] = i;
+        keys[i] = key;
+        swim(n);
+    }
+
+    /**
+     * @brief Decrease the key associated with index i to the specified value
+     * @param i the index of the key to decrease
+     * @param key decrease the key associated with index i to this key
+     * @throws NoSuchElementException if no key is associated with index i
+     */
+    public void decreaseKey(int i, double key) {
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        if (key >= keys[i]) return;
+        keys[i] = key;
+        swim(qp[i]);
+    }
+
+    /**
+     * @brief Removes a minimum key and returns its associated index
+     * @return an index associated with a minimum key
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public int delMin() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        int min = pq[1];
+        exch(1, n--);
+        sink(1);
+        qp[min] = -1;
+        return min;
+    }
+
+    /**
+     * @brief Remove every index from the queue
+     */
+    public void clear() {
+        for (int i = 1; i <= n; i++)
+            qp[pq[i]] = -1;
+        n = 0;
+    }
+
+    /**
+     * @brief move the element at heap position k up to its place
+     */
+    private void swim(int k) {
+        while (k > 1 && keys[pq[k / 2]] > keys[pq[k]]) {
+            exch(k, k / 2);
+            k = k / 2;
+        }
+    }
+
+    /**
+     * @brief move the element at heap position k down to its place
+     */
+    private void sink(int k) {
+        while (2 * k <= n) {
+            int j = 2 * k;
+            if (j < n && keys[pq[j]] > keys[pq[j + 1]]) j++;
+            if (keys[pq[k]] <= keys[pq[j]]) break;
+            exch(k, j);
+            k = j;
+        }
+    }
+
+    /**
+     * @brief swap heap positions i and j
+     */
+    private void exch(int i, int j) {
+        int swap = pq[i];
+        pq[i] = pq[j];
+        pq[j] = swap;
+        qp[pq[i]] = i;
+        qp[pq[j]] = j;
+    }
+}
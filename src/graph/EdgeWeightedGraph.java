@@ -7,13 +7,10 @@
  */
 package graph;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import graph.Restaurant;
-import graph.RestaurantParser;
 import graph.Distance;
 
 import edu.princeton.cs.algs4.*;
@@ -23,8 +20,8 @@ import edu.princeton.cs.algs4.*;
  * information about the created graph
  */
 public class EdgeWeightedGraph {
-    private static HashMap<Restaurant, Integer> revMap; //two maps for 2 way key to value retrieval
-	private static HashMap<Integer, Restaurant> map;
+    private final ConcurrentHashMap<Restaurant, Integer> revMap; //two maps for 2 way key to value retrieval, per graph
+    private final ConcurrentHashMap<Integer, Restaurant> map;    //and safe to read from many threads
     private final int V;
     private int E;
     private Bag<Edge>[] adj;
@@ -35,8 +32,8 @@ public class EdgeWeightedGraph {
      * @throws IllegalArgumentException 
      */
     public EdgeWeightedGraph(int V) {
-    	revMap = new HashMap<Restaurant, Integer>();
-    	map = new HashMap<Integer, Restaurant>();
+    	revMap = new ConcurrentHashMap<Restaurant, Integer>();
+    	map = new ConcurrentHashMap<Integer, Restaurant>();
         if (V < 0) throw new IllegalArgumentException("Number of vertices must be nonnegative");
         this.V = V;
         this.E = 0;
@@ -51,7 +48,7 @@ public class EdgeWeightedGraph {
      * @param  key Restaurant that maps to integer
      * @return corresponding integer
      */
-    public static Integer map(Restaurant key) {
+    public Integer map(Restaurant key) {
     	return revMap.get(key);
     }
 
@@ -60,7 +57,7 @@ public class EdgeWeightedGraph {
      * @param  key integer that maps to restaurant
      * @return corresponding restaurant
      */
-    public static Restaurant revMap(int key) {
+    public Restaurant revMap(int key) {
     	return map.get(key);
     }
 
@@ -124,110 +121,71 @@ public class EdgeWeightedGraph {
     }
 
     /**
-     * @brief create a graph with a list of restaurants and a number of extra vertices
+     * @brief create a compact, immutable copy of this graph for shortest path searches
+     * @return CompactGraph with the same vertices and edges
+     * @throws IllegalArgumentException if an edge weight is negative
+     */
+    public CompactGraph compact() {
+        return new CompactGraph(this);
+    }
+
+    /**
+     * @brief create a sparse graph with a list of restaurants and a number of extra vertices
+     * @detail Even vertices are only connected to even vertices and odd vertices to odd
+     * vertices, and each vertex is only connected to its k nearest neighbours of the same
+     * parity (found with a KdTree) instead of to all of them. This builds O(n*k) edges
+     * instead of O(n^2). The locations of a trip are added with a TripOverlay, connected to
+     * every restaurant, so the shortest trips found are the same as on the complete graph.
      * @param R List of restaurants
      * @param extraRes number of extra restaurants to add to the graph
-     * @return Resutling edgeweighted graph
+     * @param k number of nearest neighbours to connect each restaurant to
+     * @return Resulting edgeweighted graph
      */
-    public static EdgeWeightedGraph createGraph(ArrayList<Restaurant> R, int extraRes) {
-        EdgeWeightedGraph G = new EdgeWeightedGraph(R.size() + extraRes); //create a graph with the size of the total number of restaurants, plus user input number
-        int counter = 0;
-        for (Restaurant x: R) { //put key and value pair in both hashmaps for easy traversal
-            revMap.put(x, counter); 
-            map.put(counter, x);
-            counter++;
+    public static EdgeWeightedGraph createSparseGraph(ArrayList<Restaurant> R, int extraRes, int k) {
+        if (k < 0) throw new IllegalArgumentException("Number of neighbours must be nonnegative");
+        EdgeWeightedGraph G = new EdgeWeightedGraph(R.size() + extraRes);
+        int n = R.size();
+        for (int v = 0; v < n; v++) { //put key and value pair in both hashmaps for easy traversal
+            G.revMap.put(R.get(v), v);
+            G.map.put(v, R.get(v));
         }
-        
-        
-        int totalVertex = 0;    //add edges to the graph
-        while (totalVertex != R.size()) {
-            for (Restaurant x : R) {
-                if (totalVertex == revMap.get(x)) { //case where adding edge from and to the same vertex
-                    continue; //skip this iteration, move onto next iteration
-                }
-                //alternate between edges to add to the adjacency list
-                if (totalVertex % 2 == 0 && revMap.get(x)% 2 == 0) { //even number vertex are connected
-                    Edge newEdge = new Edge(totalVertex, revMap.get(x), 
-                    Distance.distance(map.get(totalVertex).lat(), 
-                    map.get(totalVertex).lon(), x.lat(), x.lon())); //create an edge with the weight being distance between
-                    G.addEdge(newEdge); //add edge to graph
-                } else if (totalVertex % 2 == 1 && revMap.get(x)% 2 == 1) { //odd number vertex are connected
-                    Edge newEdge = new Edge(totalVertex, revMap.get(x), 
-                    Distance.distance(map.get(totalVertex).lat(), 
-                    map.get(totalVertex).lon(), x.lat(), x.lon())); //create an edge with the weight being distance between
-                    G.addEdge(newEdge);
-                }
+
+        int[][] neighbours = new int[n][];
+        for (int parity = 0; parity < 2; parity++) { //one tree for the even vertices, one for the odd
+            ArrayList<Restaurant> part = new ArrayList<Restaurant>();
+            int[] ids = new int[(n + 1 - parity) / 2];
+            for (int v = parity; v < n; v += 2) {
+                ids[part.size()] = v;
+                part.add(R.get(v));
             }
-            
-            totalVertex++; //increment the total number of vertices
-        } 
-        
-        return G; //return resulting graph
-    }
+            KdTree tree = new KdTree(part, ids);
+            for (int v = parity; v < n; v += 2) {
+                neighbours[v] = tree.nearest(R.get(v).lat(), R.get(v).lon(), k + 1); //k + 1 since v is its own nearest point
+            }
+        }
 
-    /**
-     * @brief add two restaurants addesses to a graph
-     * @param G EdgeWeightedGraph
-     * @param start restaurant 1
-     * @param end restaurant 2
-     * @return Resutling edgeweighted graph
-     * @throws IOException
-     */
-    public static EdgeWeightedGraph addTwoAddress(EdgeWeightedGraph G, Restaurant start, Restaurant end) throws IOException {
-    	int size = RestaurantParser.resFile(new File("Restaurants in LA.csv")).size(); //size of  list of restaurants in LA
-    	
-    	int totalVertex = size;
-    	int totalExtraRes = 2;
-    	
-    	revMap.put(start, size); //add the two locations to our dictionary for easy traversal
-    	map.put(size, start);
-    	revMap.put(end, size + 1);
-    	map.put(size + 1, end);
-    	
-    	while (totalVertex != size + totalExtraRes) {  //add edges to the input restaurants
-    		for (int i = 0; i < size + totalExtraRes; i++) {
-    			if (i == size || i == size + 1) { //don't add edges to the restaurants themselves
-    				continue;
-    			}
-    			Edge newEdge = new Edge(totalVertex, i, Distance.distance(map.get(totalVertex).lat(), 
-                map.get(totalVertex).lon(), map.get(i).lat(), map.get(i).lon())); //create an edge with the weight being distance between
-				G.addEdge(newEdge); //add edge to graph
-    		}
-    		
-    		totalVertex++;
-    	}
-    	
-    	return G;
+        for (int v = 0; v < n; v++) {
+            for (int w : neighbours[v]) {
+                //skip self loops, and add a mutual neighbour pair only once from the smaller vertex
+                if (w == v || (w < v && contains(neighbours[w], v))) continue;
+                G.addEdge(new Edge(v, w, Distance.distance(R.get(v).lat(), R.get(v).lon(),
+                        R.get(w).lat(), R.get(w).lon())));
+            }
+        }
+        return G;
     }
 
     /**
-     * @brief add one restaurant address to a graph
-     * @param G EdgeWeightedGraph
-     * @param start restaurant 1
-     * @return Resutling edgeweighted graph
-     * @throws IOException
+     * @brief check if an array contains a value
+     * @param a array to search
+     * @param key value to search for
+     * @return true if key is in a
      */
-    public static EdgeWeightedGraph addOneAddress(EdgeWeightedGraph G, Restaurant start) throws IOException {
-        int size = RestaurantParser.resFile(new File("Restaurants in LA.csv")).size() + 2; //size will be equal to 2 + size of list
-        int totalVertex = size;
-        int totalExtraRes = 1;
-        
-        revMap.put(start, size); //add the two locations to our dictionary for easy traversal
-        map.put(size, start);
-        
-        while (totalVertex != size + totalExtraRes) { //loop through while the total vertex doesn't equal the size + totalExtraRes
-            for (int i = 0; i < size + totalExtraRes; i++) {
-                if (i == size || i == size - 1) { //don't add edges to start restaurant, if it is i is equal to size or size - 1
-                    continue; //this will prevent a path from a starting location to ending location
-                }
-                Edge newEdge = new Edge(totalVertex, i, Distance.distance(map.get(totalVertex).lat(), 
-                map.get(totalVertex).lon(), map.get(i).lat(), map.get(i).lon())); //create an edge with the weight being distance between
-                G.addEdge(newEdge); //add edge to graph
-            }
-            totalVertex++;
+    private static boolean contains(int[] a, int key) {
+        for (int x : a) {
+            if (x == key) return true;
         }
-        
-        return G;
+        return false;
     }
     
 }
@@ -0,0 +1,319 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: This module caches the coordinates of geocoded addresses in
+ * memory and in a file, so an address is only sent to the web once.
+ */
+
+package graph;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @brief Two level cache of the coordinates of addresses.
+ * @detail Addresses are keyed by their normalized street, city and zip code, so
+ * differences in case, spacing and punctuation hit the same entry. The first level
+ * is a least recently used map of the last addresses looked up. The second level is
+ * an append only log file with one line per geocoded address,
+ * "time lat lon key" separated by tabs; only the offset of the latest line of each
+ * key is kept in memory and the line is read back on a miss of the first level.
+ * Entries older than the time to live are misses and are dropped when the log is
+ * compacted into a new file that replaces it, which happens when it is opened with
+ * more stale lines than live ones.
+ * A torn last line left by a crash is cut off when the log is opened.
+ * All methods are safe to call from several threads.
+ */
+public class GeocodeCache {
+
+	/**
+	 * @brief Default name of the log file, in the working directory.
+	 */
+	public static final String FILE_NAME = "SafeFoods.geocache";
+
+	/**
+	 * @brief Coordinates of an address.
+	 */
+	public static class Entry {
+		private final double lat;
+		private final double lon;
+		private final long time;	// when the address was geocoded, ms since 1970-01-01
+
+		Entry(double lat, double lon, long time) {
+			this.lat = lat;
+			this.lon = lon;
+			this.time = time;
+		}
+
+		/**
+		 * @brief Getter for the latitude.
+		 * @return Latitude of the address.
+		 */
+		public double lat() {
+			return lat;
+		}
+
+		/**
+		 * @brief Getter for the longitude.
+		 * @return Longitude of the address.
+		 */
+		public double lon() {
+			return lon;
+		}
+	}
+
+	private final LinkedHashMap<String, Entry> recent;		// first level, least recently used first
+	private final Map<String, Long> offsets = new HashMap<String, Long>();	// key -> offset of its latest line
+	private final File file;
+	private final long ttl;
+	private RandomAccessFile log;	// null if the file cannot be used, the cache is then memory only
+	private int lines;				// lines in the log
+
+	/**
+	 * @brief Constructor for GeocodeCache
+	 * @detail If the log cannot be opened the cache keeps working in memory only.
+	 * @param file the log file, created if it does not exist
+	 * @param capacity number of addresses kept in memory
+	 * @param ttl milliseconds an entry stays valid
+	 */
+	public GeocodeCache(File file, final int capacity, long ttl) {
+		this.file = file;
+		this.ttl = ttl;
+		recent = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			protected boolean removeEldestEntry(Map.Entry<String, GeocodeCache.Entry> eldest) {
+				return size() > capacity;
+			}
+		};
+		try {
+			open();
+		} catch (IOException e) {
+			e.printStackTrace();
+			close();
+		}
+	}
+
+	/**
+	 * @brief Return the normalized key of an address.
+	 * @detail Upper case, punctuation removed and runs of spaces replaced by one.
+	 * @param add street address
+	 * @param city city
+	 * @param zip zip code
+	 * @return key of the address
+	 */
+	public static String key(String add, String city, String zip) {
+		return normalize(add) + "|" + normalize(city) + "|" + normalize(zip);
+	}
+
+	/**
+	 * @brief Look up the coordinates of an address.
+	 * @param key key of the address
+	 * @return the coordinates, null if the address is not cached or has expired
+	 */
+	public synchronized Entry get(String key) {
+		long now = System.currentTimeMillis();
+		Entry e = recent.get(key);
+		if (e == null) {
+			e = read(key);
+			if (e == null) return null;
+			recent.put(key, e);
+		}
+		if (now - e.time > ttl) {
+			recent.remove(key);
+			return null;
+		}
+		return e;
+	}
+
+	/**
+	 * @brief Cache the coordinates of an address.
+	 * @param key key of the address
+	 * @param lat latitude of the address
+	 * @param lon longitude of the address
+	 */
+	public synchronized void put(String key, double lat, double lon) {
+		Entry e = new Entry(lat, lon, System.currentTimeMillis());
+		recent.put(key, e);
+		if (log == null) return;
+		try {
+			long offset = log.length();
+			log.seek(offset);
+			log.write(line(key, e));
+			offsets.put(key, offset);
+			lines++;
+		} catch (IOException ex) {
+			ex.printStackTrace();
+			close();
+		}
+	}
+
+	/**
+	 * @brief Close the log file, the cache then only uses memory.
+	 */
+	public synchronized void close() {
+		if (log == null) return;
+		try {
+			log.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		log = null;
+		offsets.clear();
+	}
+
+	/**
+	 * @brief index the log, cut off a torn last line and compact it if it is mostly stale
+	 */
+	private void open() throws IOException {
+		long now = System.currentTimeMillis();
+		long end = 0;		// offset after the last complete line
+		int live = 0;
+		if (file.exists()) {
+			InputStream in = new BufferedInputStream(new FileInputStream(file), 1 << 16);
+			try {
+				ByteArrayOutputStream line = new ByteArrayOutputStream();
+				long offset = 0;
+				for (int b; (b = in.read()) != -1; ) {
+					offset++;
+					if (b != '\n') {
+						line.write(b);
+						continue;
+					}
+					String[] fields = new String(line.toByteArray(), StandardCharsets.UTF_8).split("\t", 4);
+					line.reset();
+					lines++;
+					long time = fields.length == 4 ? parseTime(fields[0]) : Long.MIN_VALUE;
+					if (time != Long.MIN_VALUE && now - time <= ttl) {
+						if (offsets.put(fields[3], end) == null) live++;
+					} else if (fields.length == 4) {	// expired or unreadable, an older line must not be used
+						if (offsets.remove(fields[3]) != null) live--;
+					}
+					end = offset;
+				}
+			} finally {
+				in.close();
+			}
+		}
+		log = new RandomAccessFile(file, "rw");
+		if (log.length() > end) log.setLength(end);
+		if (lines > 2 * live + 64) compact();
+	}
+
+	/**
+	 * @brief rewrite the log with only the latest live line of each key
+	 * @detail the lines are written to a temporary file that then replaces the log, so
+	 * a crash or an error while compacting leaves the old log complete
+	 */
+	private void compact() throws IOException {
+		Map<String, Entry> live = new LinkedHashMap<String, Entry>();
+		for (String key : new ArrayList<String>(offsets.keySet())) {
+			Entry e = read(key);
+			if (e != null) live.put(key, e);
+		}
+		if (log == null) throw new IOException("cannot read geocode cache " + file);
+		File temp = new File(file.getPath() + ".tmp");
+		Map<String, Long> compacted = new HashMap<String, Long>();
+		RandomAccessFile out = new RandomAccessFile(temp, "rw");
+		try {
+			out.setLength(0);
+			for (Map.Entry<String, Entry> e : live.entrySet()) {
+				compacted.put(e.getKey(), out.getFilePointer());
+				out.write(line(e.getKey(), e.getValue()));
+			}
+		} finally {
+			out.close();
+		}
+		log.close();
+		log = null;
+		try {
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			log = new RandomAccessFile(file, "rw");	// the compacted log, or the old one if it was not replaced
+		}
+		offsets.clear();
+		offsets.putAll(compacted);
+		lines = compacted.size();
+	}
+
+	/**
+	 * @brief read the latest line of a key from the log
+	 * @return its entry, null if the key is not in the log
+	 */
+	private Entry read(String key) {
+		Long offset = offsets.get(key);
+		if (offset == null || log == null) return null;
+		try {
+			log.seek(offset);
+			ByteArrayOutputStream line = new ByteArrayOutputStream();
+			byte[] buffer = new byte[128];
+			for (int n; (n = log.read(buffer)) > 0; ) {
+				int end = 0;
+				while (end < n && buffer[end] != '\n') end++;
+				line.write(buffer, 0, end);
+				if (end < n) break;
+			}
+			String[] fields = new String(line.toByteArray(), StandardCharsets.UTF_8).split("\t", 4);
+			return new Entry(Double.parseDouble(fields[1]), Double.parseDouble(fields[2]), Long.parseLong(fields[0]));
+		} catch (NumberFormatException e) {
+			offsets.remove(key);
+			return null;
+		} catch (IOException e) {
+			e.printStackTrace();
+			close();
+			return null;
+		}
+	}
+
+	/**
+	 * @brief parse the time of a line
+	 * @return the time, Long.MIN_VALUE if it is not a number
+	 */
+	private static long parseTime(String s) {
+		try {
+			return Long.parseLong(s);
+		} catch (NumberFormatException e) {
+			return Long.MIN_VALUE;
+		}
+	}
+
+	/**
+	 * @brief return the line of an entry in the log
+	 */
+	private static byte[] line(String key, Entry e) {
+		return (e.time + "\t" + e.lat + "\t" + e.lon + "\t" + key + "\n").getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @brief upper case a field, drop punctuation and collapse white space
+	 */
+	static String normalize(String s) {
+		StringBuilder b = new StringBuilder(s.length());
+		for (int i = 0; i < s.length(); i++) {
+			char c = Character.toUpperCase(s.charAt(i));
+			if (Character.isLetterOrDigit(c) || c == '#' || c == '-' || c == '/') b.append(c);
+			else if (Character.isWhitespace(c) || c == ',' || c == '.') {
+				if (b.length() > 0 && b.charAt(b.length() - 1) != ' ') b.append(' ');
+			}
+		}
+		int n = b.length();
+		if (n > 0 && b.charAt(n - 1) == ' ') b.setLength(n - 1);
+		return b.toString();
+	}
+}
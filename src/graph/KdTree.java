@@ -0,0 +1,216 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: This module is a 2-d tree over restaurant coordinates,
+ * used to find the nearest restaurants to a point without comparing
+ * against every restaurant.
+ */
+
+package graph;
+
+import java.util.ArrayList;
+
+import graph.Restaurant;
+
+/**
+ * @brief A static 2-d tree over a set of restaurants that answers k nearest
+ * neighbour queries.
+ * @detail Latitude and longitude are projected onto a plane (longitude is scaled
+ * by the cosine of the mean latitude) so that euclidean distance orders points the
+ * same way as the great-circle distance does at city scale.
+ */
+public class KdTree {
+
+	private final double[] x;	// projected longitude of each point, in tree order
+	private final double[] y;	// latitude of each point, in tree order
+	private final int[] id;		// caller supplied id of each point, in tree order
+	private final double scale;	// cosine of the mean latitude
+
+	/**
+	 * @brief Constructor for KdTree
+	 * @param R list of restaurants
+	 * @param ids the id to report for each restaurant in R
+	 */
+	public KdTree(ArrayList<Restaurant> R, int[] ids) {
+		int n = R.size();
+		double meanLat = 0;
+		for (Restaurant r : R) {
+			meanLat += r.lat();
+		}
+		scale = n == 0 ? 1 : Math.cos(Math.toRadians(meanLat / n));
+
+		x = new double[n];
+		y = new double[n];
+		id = new int[n];
+		for (int i = 0; i < n; i++) {
+			x[i] = R.get(i).lon() * scale;
+			y[i] = R.get(i).lat();
+			id[i] = ids[i];
+		}
+		build(0, n, true);
+	}
+
+	/**
+	 * @brief return the number of points in the tree
+	 * @return number of points
+	 */
+	public int size() {
+		return id.length;
+	}
+
+	/**
+	 * @brief Find the k points closest to a coordinate
+	 * @param lat latitude of the query point
+	 * @param lon longitude of the query point
+	 * @param k number of neighbours to find
+	 * @return ids of the closest points, nearest first
+	 */
+	public int[] nearest(double lat, double lon, int k) {
+		k = Math.min(k, id.length);
+		int[] best = new int[k];			// max-heap of tree positions keyed on distance
+		double[] bestDist = new double[k];
+		int found = search(0, id.length, true, lon * scale, lat, best, bestDist, 0, k);
+
+		//pop the heap from the farthest point to get the result nearest first
+		int[] result = new int[found];
+		for (int i = found - 1; i >= 0; i--) {
+			result[i] = id[best[0]];
+			best[0] = best[i];
+			bestDist[0] = bestDist[i];
+			sink(best, bestDist, 0, i);
+		}
+		return result;
+	}
+
+	/**
+	 * @brief Arrange points [lo, hi) so the median on the current axis is at the
+	 * middle, smaller points before it and larger points after it, then recurse.
+	 * @param lo lower index
+	 * @param hi upper index (exclusive)
+	 * @param vertical true to split on longitude, false to split on latitude
+	 */
+	private void build(int lo, int hi, boolean vertical) {
+		if (hi - lo <= 1) return;
+		int mid = (lo + hi) >>> 1;
+		select(lo, hi - 1, mid, vertical ? x : y);
+		build(lo, mid, !vertical);
+		build(mid + 1, hi, !vertical);
+	}
+
+	/**
+	 * @brief Quickselect so that position k holds the k-th smallest key in [lo, hi]
+	 * @param lo lower index
+	 * @param hi upper index (inclusive)
+	 * @param k position to select
+	 * @param key coordinate array to compare on
+	 */
+	private void select(int lo, int hi, int k, double[] key) {
+		while (hi > lo) {
+			double pivot = key[(lo + hi) >>> 1];
+			int i = lo;
+			int j = hi;
+			while (i <= j) {
+				while (key[i] < pivot) i++;
+				while (key[j] > pivot) j--;
+				if (i <= j) {
+					exch(i, j);
+					i++;
+					j--;
+				}
+			}
+			if (k <= j) hi = j;
+			else if (k >= i) lo = i;
+			else return;
+		}
+	}
+
+	/**
+	 * @brief Recursively look for points closer than the current k-th best
+	 * @return number of points in the heap
+	 */
+	private int search(int lo, int hi, boolean vertical, double qx, double qy,
+			int[] best, double[] bestDist, int found, int k) {
+		if (hi <= lo || k == 0) return found;
+		int mid = (lo + hi) >>> 1;
+
+		double dx = x[mid] - qx;
+		double dy = y[mid] - qy;
+		double d = dx * dx + dy * dy;
+		if (found < k) {	//heap not full yet, always add
+			best[found] = mid;
+			bestDist[found] = d;
+			swim(best, bestDist, found);
+			found++;
+		} else if (d < bestDist[0]) {	//closer than the farthest kept point
+			best[0] = mid;
+			bestDist[0] = d;
+			sink(best, bestDist, 0, k);
+		}
+
+		double diff = vertical ? qx - x[mid] : qy - y[mid];
+		//visit the side of the split containing the query first
+		if (diff < 0) {
+			found = search(lo, mid, !vertical, qx, qy, best, bestDist, found, k);
+			if (found < k || diff * diff < bestDist[0])
+				found = search(mid + 1, hi, !vertical, qx, qy, best, bestDist, found, k);
+		} else {
+			found = search(mid + 1, hi, !vertical, qx, qy, best, bestDist, found, k);
+			if (found < k || diff * diff < bestDist[0])
+				found = search(lo, mid, !vertical, qx, qy, best, bestDist, found, k);
+		}
+		return found;
+	}
+
+	/**
+	 * @brief restore the max-heap property upwards from position i
+	 */
+	private static void swim(int[] heap, double[] key, int i) {
+		while (i > 0) {
+			int parent = (i - 1) / 2;
+			if (key[parent] >= key[i]) break;
+			swap(heap, key, parent, i);
+			i = parent;
+		}
+	}
+
+	/**
+	 * @brief restore the max-heap property downwards from position i
+	 */
+	private static void sink(int[] heap, double[] key, int i, int n) {
+		while (2 * i + 1 < n) {
+			int child = 2 * i + 1;
+			if (child + 1 < n && key[child + 1] > key[child]) child++;
+			if (key[i] >= key[child]) break;
+			swap(heap, key, i, child);
+			i = child;
+		}
+	}
+
+	/**
+	 * @brief swap two heap entries
+	 */
+	private static void swap(int[] heap, double[] key, int i, int j) {
+		int h = heap[i];
+		heap[i] = heap[j];
+		heap[j] = h;
+		double k = key[i];
+		key[i] = key[j];
+		key[j] = k;
+	}
+
+	/**
+	 * @brief swap two points of the tree
+	 */
+	private void exch(int i, int j) {
+		double tx = x[i];
+		x[i] = x[j];
+		x[j] = tx;
+		double ty = y[i];
+		y[i] = y[j];
+		y[j] = ty;
+		int t = id[i];
+		id[i] = id[j];
+		id[j] = t;
+	}
+}
@@ -0,0 +1,254 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: This module finds the coordinates of addresses from the
+ * addresses of the restaurant data set, without using the web.
+ */
+
+package graph;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import parse.CsvReader;
+
+/**
+ * @brief Offline geocoder over a set of known addresses.
+ * @detail Every restaurant of "Restaurants in LA.csv" has a street address (field 3),
+ * a city (field 4), a location description that ends with the zip code (field 5) and
+ * its coordinates (field 14). Extra addresses can be read from an address points file,
+ * a csv file with a header and the fields street, city, zip, latitude and longitude.
+ * Streets are normalized before they are indexed or looked up: upper case, no
+ * punctuation, suffixes and directions abbreviated (AVENUE is AVE, SOUTH is S) and
+ * suite or unit numbers dropped. The core of a street is its number and name without
+ * the direction and suffix, "8647 S SEPULVEDA BLVD" is "8647 SEPULVEDA", the same form
+ * as the location descriptions. An address is looked up by street and zip code, then
+ * by core and zip code, then by street and city; each is one hash lookup, so no
+ * request is made for an address that is already known. The two fallbacks can match
+ * several different addresses, "100 N MAIN ST" and "100 S MAIN ST" have the same core,
+ * and a street can be in several zip codes of a city; such keys are ambiguous and are
+ * never answered from, since wrong coordinates would be cached as right ones.
+ */
+public class LocalGeocoder {
+
+	/**
+	 * @brief Default address points file, set with -Dsafefoods.geocoder.points
+	 */
+	public static final String POINTS_PROPERTY = "safefoods.geocoder.points";
+
+	private static final Map<String, String> ABBREVIATIONS = new HashMap<String, String>();
+	private static final String[] DIRECTIONS = { "N", "S", "E", "W", "NE", "NW", "SE", "SW" };
+	private static final String[] UNITS = { "SUITE", "STE", "UNIT", "APT", "SPACE", "SPC", "BLDG", "FL", "FLOOR", "RM", "ROOM" };
+
+	static {
+		String[] pairs = { "STREET", "ST", "AVENUE", "AVE", "AV", "AVE", "BOULEVARD", "BLVD", "DRIVE", "DR",
+				"ROAD", "RD", "PLACE", "PL", "LANE", "LN", "COURT", "CT", "HIGHWAY", "HWY", "PARKWAY", "PKWY",
+				"TERRACE", "TER", "CIRCLE", "CIR", "SQUARE", "SQ", "TRAIL", "TRL", "PLAZA", "PLZ",
+				"NORTH", "N", "SOUTH", "S", "EAST", "E", "WEST", "W",
+				"NORTHEAST", "NE", "NORTHWEST", "NW", "SOUTHEAST", "SE", "SOUTHWEST", "SW" };
+		for (int i = 0; i < pairs.length; i += 2) ABBREVIATIONS.put(pairs[i], pairs[i + 1]);
+	}
+
+	private static final String[] SUFFIXES = { "ST", "AVE", "BLVD", "DR", "RD", "PL", "LN", "CT", "HWY", "PKWY",
+			"TER", "CIR", "SQ", "TRL", "PLZ", "WAY" };
+
+	private static final int AMBIGUOUS = -1;	// point of a fallback key shared by different addresses
+
+	private final Map<String, Integer> index = new HashMap<String, Integer>();	// key -> point
+	private Map<String, String> owners = new HashMap<String, String>();	// fallback key -> its street and zip, while building
+	private double[] lat = new double[1024];
+	private double[] lon = new double[1024];
+	private int points;
+
+	/**
+	 * @brief Build a geocoder from the restaurants and an optional address points file
+	 * @detail A file that does not exist is skipped, so the geocoder may be empty.
+	 * @param restaurants "Restaurants in LA.csv"
+	 * @param pointsFile address points file, or null
+	 * @throws IOException if a file cannot be read
+	 */
+	public LocalGeocoder(File restaurants, File pointsFile) throws IOException {
+		if (pointsFile != null && pointsFile.exists()) {	// address points are more precise, so they come first
+			read(pointsFile, 0, 1, 2, 3);
+		}
+		if (restaurants.exists()) {
+			read(restaurants, 3, 4, 5, 14);
+		}
+		owners = null;
+	}
+
+	/**
+	 * @brief Return the default geocoder, over "Restaurants in LA.csv" and the address
+	 * points file of -Dsafefoods.geocoder.points, if it is set
+	 * @return the geocoder
+	 * @throws IOException if a file cannot be read
+	 */
+	public static LocalGeocoder load() throws IOException {
+		String points = System.getProperty(POINTS_PROPERTY);
+		return new LocalGeocoder(new File("Restaurants in LA.csv"), points == null ? null : new File(points));
+	}
+
+	/**
+	 * @brief Find the coordinates of an address
+	 * @param zip String representing zipcode
+	 * @param city String representing city
+	 * @param add String representing address
+	 * @return Restaurant object with the coordinates of the address, null if it is not known
+	 */
+	public Restaurant lookup(String zip, String city, String add) {
+		String street = street(add);
+		String zip5 = zip5(zip);
+		Integer p = index.get(street + "|" + zip5);
+		if (p == null || p == AMBIGUOUS) p = index.get(core(street) + "|" + zip5);
+		if (p == null || p == AMBIGUOUS) p = index.get(street + "|" + GeocodeCache.normalize(city));
+		if (p == null || p == AMBIGUOUS) return null;
+		return new Restaurant(" ", lat[p], lon[p], add);
+	}
+
+	/**
+	 * @brief Return the number of addresses with coordinates.
+	 * @return Number of addresses.
+	 */
+	public int size() {
+		return points;
+	}
+
+	/**
+	 * @brief index the addresses of a csv file, the first point of an address is kept
+	 * @param location index of the field with the coordinates "(lat, lon)", or of the
+	 * latitude, followed by the longitude, in an address points file
+	 */
+	private void read(File file, int street, int city, int zip, int location) throws IOException {
+		CsvReader csv = new CsvReader(new FileReader(file));
+		try {
+			csv.next();	//skip the header
+			while (csv.next()) {
+				if (csv.isBlank() || csv.fields() <= Math.max(Math.max(street, city), Math.max(zip, location))) continue;
+				if (csv.length(street) == 0 || csv.length(location) == 0) continue;
+				double y, x;
+				try {
+					if (csv.charAt(location, 0) == '(') {
+						int comma = csv.indexOf(location, ',');
+						y = csv.doubleField(location, 1, comma);
+						x = csv.doubleField(location, comma + 1, csv.length(location) - 1);
+					} else {
+						y = csv.doubleField(location, 0, csv.length(location));
+						x = csv.doubleField(location + 1, 0, csv.length(location + 1));
+					}
+				} catch (RuntimeException e) {	// no coordinates
+					continue;
+				}
+				if (y == 0 && x == 0) continue;
+				add(csv.field(street), csv.field(city), zip5(csv.field(zip)), y, x);
+			}
+		} finally {
+			csv.close();
+		}
+	}
+
+	/**
+	 * @brief add a point and index it under its keys
+	 */
+	private void add(String add, String city, String zip, double y, double x) {
+		if (points == lat.length) {
+			lat = Arrays.copyOf(lat, points * 2);
+			lon = Arrays.copyOf(lon, points * 2);
+		}
+		lat[points] = y;
+		lon[points] = x;
+		String street = street(add);
+		String address = street + "|" + zip;
+		boolean used = false;
+		if (!zip.isEmpty()) {
+			used |= putIfAbsent(address);
+			used |= putFallback(core(street) + "|" + zip, address);
+		}
+		if (!city.trim().isEmpty()) {
+			used |= putFallback(street + "|" + GeocodeCache.normalize(city), address);
+		}
+		if (used) points++;
+	}
+
+	/**
+	 * @brief map a key to the point being added unless it is taken
+	 * @return true if the key was added
+	 */
+	private boolean putIfAbsent(String key) {
+		if (index.containsKey(key)) return false;
+		index.put(key, points);
+		return true;
+	}
+
+	/**
+	 * @brief map a fallback key to the point being added, or mark it ambiguous if it
+	 * already belongs to a different street and zip code
+	 * @return true if the key was added
+	 */
+	private boolean putFallback(String key, String address) {
+		String owner = owners.get(key);
+		if (owner == null) {
+			owners.put(key, address);
+			index.put(key, points);
+			return true;
+		}
+		if (!owner.equals(address)) index.put(key, AMBIGUOUS);
+		return false;
+	}
+
+	/**
+	 * @brief normalize a street, abbreviating words and dropping the unit
+	 */
+	static String street(String add) {
+		String[] words = GeocodeCache.normalize(add).split(" ");
+		StringBuilder b = new StringBuilder();
+		for (String w : words) {
+			if (w.isEmpty()) continue;
+			if ((w.charAt(0) == '#' || Arrays.asList(UNITS).contains(w)) && b.length() > 0) break;
+			String a = ABBREVIATIONS.get(w);
+			if (b.length() > 0) b.append(' ');
+			b.append(a == null ? w : a);
+		}
+		return b.toString();
+	}
+
+	/**
+	 * @brief return the number and name of a normalized street, without its direction and suffix
+	 */
+	static String core(String street) {
+		String[] words = street.split(" ");
+		int from = 0, to = words.length;
+		if (to - from > 2 && Arrays.asList(DIRECTIONS).contains(words[1])) {	// "181 S VERMONT AVE"
+			words[1] = words[0];
+			from = 1;
+		}
+		if (to - from > 2 && Arrays.asList(SUFFIXES).contains(words[to - 1])) to--;
+		if (to - from > 2 && Arrays.asList(DIRECTIONS).contains(words[to - 1])) to--;	// "100 MAIN ST E"
+		StringBuilder b = new StringBuilder();
+		for (int i = from; i < to; i++) {
+			if (i > from) b.append(' ');
+			b.append(words[i]);
+		}
+		return b.toString();
+	}
+
+	/**
+	 * @brief return the five digit zip code at the end of a field, "" if there is none
+	 */
+	private static String zip5(String s) {
+		String t = s.trim();
+		int dash = t.lastIndexOf('-');
+		if (dash >= 0 && dash == t.length() - 1) t = t.substring(0, dash);	// "909 3RD 90013-"
+		else if (dash >= 0 && dash >= t.length() - 5) t = t.substring(0, dash);	// zip plus four
+		if (t.length() < 5) return "";
+		String zip = t.substring(t.length() - 5);
+		for (int i = 0; i < 5; i++) {
+			if (!Character.isDigit(zip.charAt(i))) return "";
+		}
+		return zip;
+	}
+}
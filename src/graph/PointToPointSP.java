@@ -0,0 +1,175 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: This module finds a shortest path between a single source
+ * and a single target with dijkstra's algorithm, stopping as soon as the
+ * target is reached. Adapted from Algorithms 4th ed. by Robert Segdewick
+ */
+
+package graph;
+
+import java.util.Arrays;
+import java.util.Stack;
+
+import edu.princeton.cs.algs4.Edge;
+
+/**
+ * @brief Reusable single source, single target shortest path search
+ * @detail The arrays are sized once and reused by every search, entries are only
+ * reset when a search first touches them. A search never creates objects except
+ * for the returned path. Edge weights are assumed nonnegative, which CompactGraph
+ * checks when it is built. One instance should only be used by one thread at a time.
+ */
+public class PointToPointSP {
+    private double[] distTo;          // distTo[v] = distance of shortest s->v path found so far
+    private int[] vertexTo;           // vertexTo[v] = previous vertex on that path, -1 if none
+    private double[] weightTo;        // weightTo[v] = weight of the last edge on that path
+    private int[] stamp;              // stamp[v] = search that last touched v
+    private DoubleIndexMinPQ pq;      // priority queue of vertices
+    private int search;               // id of the current search
+    private int source = -1;          // source of the last search
+    private int target = -1;          // target of the last search
+    private int settled;              // number of vertices removed from pq in the last search
+
+    /**
+     * @brief Constructor for PointToPointSP
+     * @param capacity number of vertices of the largest expected graph, grown if needed
+     */
+    public PointToPointSP(int capacity) {
+        allocate(capacity);
+    }
+
+    /**
+     * @brief Find a shortest path from s to t in G
+     * @param G the graph to search
+     * @param s the source vertex
+     * @param t the target vertex
+     * @return true if there is a path from s to t
+     * @throws IllegalArgumentException if s or t is not a vertex of G
+     */
+    public boolean search(WeightedGraph G, int s, int t) {
+        validateVertex(G, s);
+        validateVertex(G, t);
+        if (G.V() > stamp.length) allocate(G.V());
+        if (++search == 0) { //stamp overflowed, forget every old search
+            Arrays.fill(stamp, 0);
+            search = 1;
+        }
+        pq.clear();
+        source = s;
+        target = t;
+        settled = 0;
+
+        touch(s);
+        distTo[s] = 0.0;
+        pq.insert(s, priority(G, s, 0.0));
+        while (!pq.isEmpty()) {
+            int v = pq.delMin();
+            settled++;
+            if (v == t) return true; //t is settled, its distance is final
+            double dv = distTo[v];
+            for (int i = 0, d = G.degree(v); i < d; i++) {
+                int w = G.other(v, i);
+                double weight = G.weight(v, i);
+                touch(w);
+                if (distTo[w] > dv + weight) {
+                    distTo[w] = dv + weight;
+                    vertexTo[w] = v;
+                    weightTo[w] = weight;
+                    double p = priority(G, w, distTo[w]);
+                    if (pq.contains(w)) pq.decreaseKey(w, p);
+                    else                pq.insert(w, p);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @brief the key a vertex is ordered by in the priority queue
+     * @param G the graph being searched
+     * @param v the vertex
+     * @param dist the distance of the shortest path from the source to v found so far
+     * @return the priority of v, for dijkstra's algorithm its distance from the source
+     */
+    protected double priority(WeightedGraph G, int v, double dist) {
+        return dist;
+    }
+
+    /**
+     * @brief Returns true if the last search found a path
+     * @return boolean value depending on if there is a path or not
+     */
+    public boolean hasPath() {
+        return target != -1 && stamp[target] == search && distTo[target] < Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @brief retreive the length of the path found by the last search
+     * @return the length of the path, infinity if there is none
+     */
+    public double distance() {
+        return hasPath() ? distTo[target] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @brief retreive the number of vertices settled by the last search
+     * @return number of vertices settled
+     */
+    public int settled() {
+        return settled;
+    }
+
+    /**
+     * @brief create stack of edges which contains the path found by the last search
+     * @detail each edge is created from the end closer to the source, so either()
+     * of the top edge is the source vertex
+     * @return the path from source to target in a stack of edges, null if there is none
+     */
+    public Stack<Edge> path() {
+        if (!hasPath()) return null;
+        Stack<Edge> path = new Stack<Edge>();
+        for (int x = target; x != source; x = vertexTo[x]) {
+            path.push(new Edge(vertexTo[x], x, weightTo[x]));
+        }
+        return path;
+    }
+
+    /**
+     * @brief reset the entry of a vertex if this search has not used it yet
+     * @param v the vertex
+     */
+    private void touch(int v) {
+        if (stamp[v] != search) {
+            stamp[v] = search;
+            distTo[v] = Double.POSITIVE_INFINITY;
+            vertexTo[v] = -1;
+        }
+    }
+
+    /**
+     * @brief create the arrays for graphs with up to capacity vertices
+     * @param capacity number of vertices
+     */
+    private void allocate(int capacity) {
+        distTo = new double[capacity];
+        vertexTo = new int[capacity];
+        weightTo = new double[capacity];
+        stamp = new int[capacity];
+        pq = new DoubleIndexMinPQ(capacity);
+        search = 0;
+        target = -1;
+    }
+
+    /**
+     * @brief check if vertex is valid
+     * @param G the graph
+     * @param v verte to check
+     * @throws IllegalArgumentException vertex is not valid
+     */
+    private static void validateVertex(WeightedGraph G, int v) {
+        if (v < 0 || v >= G.V())
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (G.V() - 1));
+    }
+}
@@ -8,7 +8,6 @@
 
 package graph;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
@@ -16,6 +15,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 
 import graph.Restaurant;
+import parse.CsvReader;
 
 /**
  * @brief This class will create a list of restaurants based on a given
@@ -29,7 +29,7 @@ public class RestaurantParser {
      * the whole file and parse data, specifically address,
      * longitude, latitude, and restuarant name. Then place this
      * information inside a restaurant object. 
-     * The csv parser was based on an implementation by Stack Overflow - Bart Kiers CSV Parser.
+     * The LOCATION field has the form "(lat, lon)" and is parsed in place.
      * @param restaurantFile file that contains restaurants in LA information 
      * @return List of all restaurants in LA
      * @throws IOException
@@ -38,41 +38,21 @@ public class RestaurantParser {
 		 	ArrayList<Restaurant> res = new ArrayList<Restaurant>();
 	        
 	        try {
-			    String line;
-			    BufferedReader br = new BufferedReader(new FileReader(restaurantFile));
-			    String otherThanQuote = " [^\"] ";
-		        String quotedString = String.format(" \" %s* \" ", otherThanQuote);
-		        String regex = String.format("(?x) "+ // enable comments, ignore white spaces
-		                ",                         "+ // match a comma
-		                "(?=                       "+ // start positive look ahead
-		                "  (?:                     "+ //   start non-capturing group 1
-		                "    %s*                   "+ //     match 'otherThanQuote' zero or more times
-		                "    %s                    "+ //     match 'quotedString'
-		                "  )*                      "+ //   end group 1 and repeat it zero or more times
-		                "  %s*                     "+ //   match 'otherThanQuote'
-		                "  $                       "+ // match the end of the string
-		                ")                         ", // stop positive look ahead
-		                otherThanQuote, quotedString, otherThanQuote);
-	        
-	            br.readLine();
-	            
+	        	CsvReader csv = new CsvReader(new FileReader(restaurantFile));
+	        	csv.next();	//skip the header
 	            
-			    while ((line = br.readLine()) != null) {
-			   	    String[] fields = line.split(regex, -1);	//split the string
+			    while (csv.next()) {
+			    	if (csv.isBlank()) continue;
 			   	    
-			   	    if (fields[14].length() != 0 && fields[2].length() != 0 && fields[3].length() != 0 ) {		//check if the size of the string is not 0
-			   	    	String part1 = fields[14].substring(1);		//substring to retrieve correct data
-			   	    	String part2 = part1.substring(1, part1.length() - 2);
-			   	    	String[] part3 = part2.split(",");
+			   	    if (csv.length(14) != 0 && csv.length(2) != 0 && csv.length(3) != 0 ) {		//check if the size of the string is not 0
+			   	    	int comma = csv.indexOf(14, ',');		//find the coordinates between the brackets
+			   	    	double lat = csv.doubleField(14, 1, comma);
+			   	    	double lon = csv.doubleField(14, comma + 1, csv.length(14) - 1);
 			   	    	
-			   	    	
-			   	    	res.add(new Restaurant(fields[2], Double.parseDouble(part3[0]), Double.parseDouble(part3[1]), fields[3])); //create restaurant object with fields
-			   	    }
-			   	    else {
-			   	    	continue;
+			   	    	res.add(new Restaurant(csv.field(2), lat, lon, csv.field(3))); //create restaurant object with fields
 			   	    }
 	            }
-	            br.close();
+	            csv.close();
 	        } catch (FileNotFoundException e) {
 	            e.printStackTrace();
 	        }	
@@ -0,0 +1,114 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: This module adds the locations of a single trip on top
+ * of the shared restaurant graph, without modifying the shared graph.
+ */
+
+package graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * @brief A graph made of a base graph of restaurants plus a few extra vertices
+ * (the start, midpoint and destination of a trip), each connected to every restaurant.
+ * @detail The base graph is only read, so one base graph can be shared by every trip.
+ * The extra vertices are numbered after the base vertices. A TripOverlay belongs
+ * to a single trip and should not be shared between threads.
+ */
+public class TripOverlay implements WeightedGraph {
+    private final CompactGraph base;
+    private final int baseV;
+    private final ArrayList<Restaurant> extra = new ArrayList<Restaurant>(); //restaurant of each extra vertex
+    private final ArrayList<double[]> extraWeights = new ArrayList<double[]>(); //extraWeights.get(i)[v] = weight of the edge between extra vertex i and base vertex v
+    private final HashMap<Restaurant, Integer> revMap = new HashMap<Restaurant, Integer>();
+
+    /**
+     * @brief Constructor for TripOverlay
+     * @param base the shared graph of restaurants
+     */
+    public TripOverlay(CompactGraph base) {
+        this.base = base;
+        this.baseV = base.V();
+    }
+
+    /**
+     * @brief add a location to the trip, connected to every restaurant of the base graph
+     * @param location the location to add
+     * @return the vertex of the location
+     */
+    public int addLocation(Restaurant location) {
+        int vertex = baseV + extra.size();
+        double[] weights = new double[baseV];
+        base.distancesFrom(location.lat(), location.lon(), weights);
+        extra.add(location);
+        extraWeights.add(weights);
+        revMap.put(location, vertex);
+        return vertex;
+    }
+
+    /**
+     * @brief get the vertex of a restaurant or trip location
+     * @param  key Restaurant that maps to integer
+     * @return corresponding integer
+     */
+    public Integer map(Restaurant key) {
+        Integer v = revMap.get(key);
+        return v != null ? v : base.map(key);
+    }
+
+    /**
+     * @brief get the restaurant or trip location of a vertex
+     * @param  key integer that maps to restaurant
+     * @return corresponding restaurant
+     */
+    public Restaurant revMap(int key) {
+        return key >= baseV ? extra.get(key - baseV) : base.revMap(key);
+    }
+
+    /**
+     * @brief return the number of vertices in graph
+     * @return the number of base vertices plus the number of trip locations
+     */
+    public int V() {
+        return baseV + extra.size();
+    }
+
+    /**
+     * @brief return the number of edges incident on a vertex
+     * @detail a trip location is connected to every base vertex, and a base vertex
+     * has its own edges followed by one edge to each trip location
+     * @param v the vertex
+     * @return the degree of v
+     */
+    public int degree(int v) {
+        return v >= baseV ? baseV : base.degree(v) + extra.size();
+    }
+
+    /**
+     * @brief return the other end of the i-th edge incident on a vertex
+     * @param v the vertex
+     * @param i index of the edge, between 0 and degree(v) - 1
+     * @return the vertex at the other end of the edge
+     */
+    public int other(int v, int i) {
+        if (v >= baseV) return i;
+        int d = base.degree(v);
+        return i < d ? base.other(v, i) : baseV + (i - d);
+    }
+
+    /**
+     * @brief return the weight of the i-th edge incident on a vertex
+     * @param v the vertex
+     * @param i index of the edge, between 0 and degree(v) - 1
+     * @return the weight of the edge
+     */
+    public double weight(int v, int i) {
+        if (v >= baseV) return extraWeights.get(v - baseV)[i];
+        int d = base.degree(v);
+        return i < d ? base.weight(v, i) : extraWeights.get(i - d)[v];
+    }
+
+}
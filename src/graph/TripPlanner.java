@@ -13,9 +13,9 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Stack;
+import java.util.concurrent.Future;
 
 import edu.princeton.cs.algs4.*;
-import graph.DijkstraUndirectedSP;
 import graph.EdgeWeightedGraph;
 import graph.Restaurant;
 import graph.RestaurantParser;
@@ -28,6 +28,14 @@ import graph.WebSearch;
 
 public class TripPlanner {
 
+    private static final int NEIGHBOURS = 8; //number of nearest restaurants each restaurant is connected to
+    private static volatile CompactGraph baseGraph; //graph of all the restaurants, built once
+    private static final ThreadLocal<AStarSP> search = new ThreadLocal<AStarSP>() { //one reusable search per thread
+        protected AStarSP initialValue() {
+            return new AStarSP(0);
+        }
+    };
+
     /**
      * @brief Given the address, city, and zip code of two addresses plan
      * a trip that starts at address 1 and ends at address 2 and also
@@ -54,41 +62,45 @@ public class TripPlanner {
         } 
         String trip = "";
 
-        ArrayList<Restaurant> res = RestaurantParser.resFile(new File("Restaurants in LA.csv")); //create a list of all the restaurants in LA
+        Future<Restaurant> start = WebSearch.fetchAsync(zip1, city1, add1); //fetch longitude and latitude for the two addresses input at the same time,
+        Future<Restaurant> end = WebSearch.fetchAsync(zip2, city2, add2);  //while the graph is loaded
+        
+        CompactGraph base = baseGraph(); //shared graph of all the restaurants in LA
         
-        Restaurant Location1 = WebSearch.fetchAPI(zip1, city1, add1); //fetch longitude and latitude for the two addresses input
-        Restaurant Location2 = WebSearch.fetchAPI(zip2, city2, add2);
+        Restaurant Location1 = WebSearch.await(start);
+        Restaurant Location2 = WebSearch.await(end);
         
         if(numRestaurants == 1) { //if the number of restaurants input by the user is 1
-        	EdgeWeightedGraph G = EdgeWeightedGraph.createGraph(res, 2); //create an edgeweightedgraph
-            G = EdgeWeightedGraph.addTwoAddress(G, Location1, Location2);  //add the two addresses to the graph
-            DijkstraUndirectedSP sp = new DijkstraUndirectedSP(G, EdgeWeightedGraph.map(Location1)); //apply graph algorithm on edgeweightedgraph where the source is the first location 
-            Stack<Edge> shortestPath = sp.pathTo(EdgeWeightedGraph.map(Location2)); //find shortest path to location 2 from location 1
+            TripOverlay G = new TripOverlay(base); //add the two addresses on top of the shared graph
+            G.addLocation(Location1);
+            G.addLocation(Location2);
+            AStarSP sp = search.get();
+            sp.search(G, G.map(Location1), G.map(Location2)); //search from the first location towards location 2
+            Stack<Edge> shortestPath = sp.path(); //shortest path to location 2 from location 1
             
             trip += ("Starting Address: " + Location1.address() + "\n"); //build string for formatted output
-            trip += pathToString(shortestPath, Location1, Location2);
+            trip += pathToString(G, shortestPath, Location1, Location2);
             trip += ("Destination Address: " + Location2.address());
 
         } else if(numRestaurants == 2) { //if the number of restaurants input by the user is 2
             double [] latLot = midPoint(Location1.lat(), Location1.lon(), Location2.lat(), Location2.lon()); //double array that contains this information
             
             Restaurant Location3 = new Restaurant("", latLot[0],latLot[1],""); //restaurant object for midpoint between two locatiosn input
-            EdgeWeightedGraph G1 = EdgeWeightedGraph.createGraph(res, 3); //create an edgeweightedgraph 
-            
-            G1 = EdgeWeightedGraph.addTwoAddress(G1, Location1, Location3); //add locations to graph
-            
-            G1 = EdgeWeightedGraph.addOneAddress(G1, Location2); 
+            TripOverlay G1 = new TripOverlay(base); //add locations on top of the shared graph
+            G1.addLocation(Location1);
+            G1.addLocation(Location3);
+            G1.addLocation(Location2);
             
-            DijkstraUndirectedSP sp1 = new DijkstraUndirectedSP(G1, EdgeWeightedGraph.map(Location1)); //apply graph algorithm where location 1 is starting point
-            DijkstraUndirectedSP sp2 = new DijkstraUndirectedSP(G1, EdgeWeightedGraph.map(Location3)); //apply graph algorithm where the midpoint is the starting point
-          
-            Stack<Edge> shortestPath1 = sp1.pathTo(EdgeWeightedGraph.map(Location3)); //find shortest path from location 1 to midpoint
-            Stack<Edge> shortestPath2 = sp2.pathTo(EdgeWeightedGraph.map(Location2)); //find shortest path from midpoint to location 2
+            AStarSP sp = search.get();
+            sp.search(G1, G1.map(Location1), G1.map(Location3)); //search from location 1 towards the midpoint
+            Stack<Edge> shortestPath1 = sp.path(); //shortest path from location 1 to midpoint
+            sp.search(G1, G1.map(Location3), G1.map(Location2)); //search from the midpoint towards location 2
+            Stack<Edge> shortestPath2 = sp.path(); //shortest path from midpoint to location 2
             
             
             trip += ("Starting Address: " + Location1.address() + "\n");   //build string for formatted output
-            String path1 = pathToString(shortestPath1, Location1, Location3); 
-            String path2 = pathToString(shortestPath2, Location3, Location2);
+            String path1 = pathToString(G1, shortestPath1, Location1, Location3); 
+            String path2 = pathToString(G1, shortestPath2, Location3, Location2);
             trip += path1;
             trip += path2;
             trip += ("Destination Address: " + Location2.address());
@@ -96,23 +108,46 @@ public class TripPlanner {
         return trip;	//return formatted string
     }
 
+    /**
+     * @brief Return the graph of all the restaurants in LA, shared by every trip.
+     * @detail The graph is built the first time it is needed and never changed
+     * afterwards, trips add their locations with a TripOverlay instead.
+     * @return The graph of all the restaurants in LA.
+     * @throws IOException
+     */
+    public static CompactGraph baseGraph() throws IOException {
+        CompactGraph G = baseGraph;
+        if (G == null) {
+            synchronized (TripPlanner.class) {
+                G = baseGraph;
+                if (G == null) {
+                    ArrayList<Restaurant> res = RestaurantParser.resFile(new File("Restaurants in LA.csv")); //create a list of all the restaurants in LA
+                    G = EdgeWeightedGraph.createSparseGraph(res, 0, NEIGHBOURS).compact();
+                    baseGraph = G;
+                }
+            }
+        }
+        return G;
+    }
+
     /**
      * @brief Given a stack of edges that correspond to the shortest path, return a string
      * that represents the entire path.
+     * @param G The graph the path was found in.
      * @param shortestPath The stack of edges making up the shortest path.
      * @return The String representing the stack of edges.
      */
-    private static String pathToString(Stack<Edge> shortestPath, Restaurant Location1, Restaurant Location2) {
+    private static String pathToString(WeightedGraph G, Stack<Edge> shortestPath, Restaurant Location1, Restaurant Location2) {
     	String trip = "";
     	int counter = 0;
         while (!shortestPath.isEmpty()) {   //traverse stack and print the correct restaurant that user will visit on trip  
             Edge E = shortestPath.pop();
-            if (((E.either() != EdgeWeightedGraph.map(Location1)) || //make sure not to print the current location
-                    (E.either() != EdgeWeightedGraph.map(Location2)) ||
-                    (E.other(E.either()) != EdgeWeightedGraph.map(Location1)) ||
-                    (E.other(E.either()) != EdgeWeightedGraph.map(Location2))) && counter != 1) {
+            if (((E.either() != G.map(Location1)) || //make sure not to print the current location
+                    (E.either() != G.map(Location2)) ||
+                    (E.other(E.either()) != G.map(Location1)) ||
+                    (E.other(E.either()) != G.map(Location2))) && counter != 1) {
                 int edge = E.other(E.either());
-                trip += ("Address: " + EdgeWeightedGraph.revMap(edge).address() + ", Restaurant: " + EdgeWeightedGraph.revMap(edge).restaurant() + "\n");
+                trip += ("Address: " + G.revMap(edge).address() + ", Restaurant: " + G.revMap(edge).restaurant() + "\n");
                 counter++;
             }            
         }
@@ -9,6 +9,16 @@ package graph;
 
 import java.net.MalformedURLException;
 import java.io.BufferedReader;
+import java.io.File;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.*;
@@ -23,11 +33,37 @@ import graph.Restaurant;
  */
 public class WebSearch {
 
+	private static final String KEY = "AtZam4iKGy3WLVsVmr67w5NQj3gGBdwTGaw2F_mbRseTr8kCutdTfqg8eHWdcKNo";
+	private static final int CACHED = 256;	// addresses kept in memory
+	private static final long TTL = 30L * 24 * 60 * 60 * 1000;	// geocoded addresses are kept for 30 days
+	// the Locations endpoint, can be set to a local server with -Dsafefoods.geocoder.url
+	private static volatile String baseUrl = System.getProperty("safefoods.geocoder.url", 
+			"http://dev.virtualearth.net/REST/v1/Locations/US/CA/");
+	private static GeocodeCache cache;
+	private static LocalGeocoder local;	// addresses of the restaurant data set, looked up before the web
+	private static boolean localLoaded;
+	// milliseconds to connect and to wait for a response, -Dsafefoods.geocoder.timeout
+	private static volatile int timeout = Integer.getInteger("safefoods.geocoder.timeout", 5000);
+	// requests retried after a failure, -Dsafefoods.geocoder.retries
+	private static volatile int retries = Integer.getInteger("safefoods.geocoder.retries", 2);
+	private static final long BACKOFF = 200;	// milliseconds before the first retry, doubled for each retry
+	// after 5 failed requests in a row, no requests are made for 30 seconds
+	private static volatile CircuitBreaker breaker = new CircuitBreaker(5, 30000);
+	private static final ExecutorService lookups = Executors.newCachedThreadPool(new ThreadFactory() {
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, "geocoder");
+			t.setDaemon(true);
+			return t;
+		}
+	});
+
     /**
      * @brief Search the web for coordinates, based on user input
      * @detail Taking the strings, and using them to create a URL 
      * that will be used to make a GET request. Then using a String buffer, the 
      * data is returned as a json file, and parsed into a restaurant object. 
+     * Addresses of the restaurant data set are answered by the local geocoder and
+     * addresses found before by the geocode cache, both without a request.
      * @param zip String representing zipcode
      * @param city String representing city
      * @param add String representing address
@@ -35,7 +71,218 @@ public class WebSearch {
      * @throws MalformedURLException 
      */
 	public static Restaurant fetchAPI(String zip, String city, String add) throws MalformedURLException {
-		Restaurant newRes;
+		LocalGeocoder l = local();
+		Restaurant known = l == null ? null : l.lookup(zip, city, add);
+		if (known != null) {
+			return known;
+		}
+		String key = GeocodeCache.key(add, city, zip);
+		GeocodeCache.Entry cached = cache().get(key);
+		if (cached != null) {
+			return new Restaurant(" ", cached.lat(), cached.lon(), add);
+		}
+		try {
+			Restaurant newRes = request(zip, city, add);
+			cache().put(key, newRes.lat(), newRes.lon());
+			return newRes;
+		} catch (MalformedURLException e) {
+			throw e;
+		} catch (IOException e) {
+
+			e.printStackTrace();
+		}
+		
+		return new Restaurant(" ", 1.2, 3.4, " "); // if we cannot access the API database, use default information
+	}
+	
+	/**
+	 * @brief Search the web for coordinates on another thread
+	 * @detail Several addresses can be looked up at the same time, each one the same
+	 * way as fetchAPI.
+	 * @param zip String representing zipcode
+	 * @param city String representing city
+	 * @param add String representing address
+	 * @return Future of the Restaurant object with data from user input
+	 */
+	public static Future<Restaurant> fetchAsync(final String zip, final String city, final String add) {
+		return lookups.submit(new Callable<Restaurant>() {
+			public Restaurant call() throws MalformedURLException {
+				return fetchAPI(zip, city, add);
+			}
+		});
+	}
+	
+	/**
+	 * @brief Wait for an address looked up by fetchAsync
+	 * @detail The wait is bounded by the time every attempt of the lookup can take,
+	 * if the lookup takes longer it is cancelled and the default location is returned.
+	 * @param lookup the lookup returned by fetchAsync
+	 * @return Restaurant object with the coordinates of the address
+	 * @throws IOException if the address is malformed or the wait is interrupted
+	 */
+	public static Restaurant await(Future<Restaurant> lookup) throws IOException {
+		long limit = (retries + 1) * 2L * timeout + (BACKOFF << retries) + 1000;
+		try {
+			return lookup.get(limit, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			lookup.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("geocoding interrupted");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+			throw new IOException(e.getCause());
+		} catch (TimeoutException e) {
+			lookup.cancel(true);
+			e.printStackTrace();
+			return new Restaurant(" ", 1.2, 3.4, " ");
+		}
+	}
+	
+	/**
+	 * @brief Set how long a request may take to connect and to respond.
+	 * @param ms milliseconds for each
+	 */
+	public static void setTimeout(int ms) {
+		timeout = ms;
+	}
+	
+	/**
+	 * @brief Set how many times a failed request is retried.
+	 * @param n number of retries, 0 to never retry
+	 */
+	public static void setRetries(int n) {
+		retries = n;
+	}
+	
+	/**
+	 * @brief Set the circuit breaker in front of the Locations endpoint.
+	 * @param b the circuit breaker used from now on
+	 */
+	public static void setCircuitBreaker(CircuitBreaker b) {
+		breaker = b;
+	}
+	
+	/**
+	 * @brief Set the url of the Locations endpoint, such as a local server for testing.
+	 * @param url url that the zip code, city and address are appended to
+	 */
+	public static void setBaseUrl(String url) {
+		baseUrl = url;
+	}
+	
+	/**
+	 * @brief Set the cache of geocoded addresses.
+	 * @param c the cache used by fetchAPI from now on
+	 */
+	public static synchronized void setCache(GeocodeCache c) {
+		cache = c;
+	}
+	
+	/**
+	 * @brief Set the local geocoder that is asked before the web.
+	 * @param l the local geocoder, or null to always use the cache and the web
+	 */
+	public static synchronized void setLocalGeocoder(LocalGeocoder l) {
+		local = l;
+		localLoaded = true;
+	}
+	
+	/**
+	 * @brief return the local geocoder, building the default one the first time
+	 */
+	private static synchronized LocalGeocoder local() {
+		if (!localLoaded) {
+			localLoaded = true;
+			try {
+				local = LocalGeocoder.load();
+			} catch (IOException e) {	// the web is still there
+				e.printStackTrace();
+			}
+		}
+		return local;
+	}
+	
+	/**
+	 * @brief return the cache of geocoded addresses, opening the default one the first time
+	 */
+	private static synchronized GeocodeCache cache() {
+		if (cache == null) {
+			cache = new GeocodeCache(new File(GeocodeCache.FILE_NAME), CACHED, TTL);
+		}
+		return cache;
+	}
+	
+	/**
+	 * @brief request the coordinates of an address, retrying failed requests
+	 * @detail retries wait twice as long as the one before; rate limited requests,
+	 * server errors and timeouts are retried, an answer without coordinates or that
+	 * refuses the key is not, and no request is made while the circuit is open
+	 * @throws IOException if every attempt fails
+	 */
+	private static Restaurant request(String zip, String city, String add) throws IOException {
+		URL url = url(zip, city, add); //a malformed address is the caller's fault, so it never reaches the breaker
+		CircuitBreaker b = breaker;
+		IOException failure = null;
+		for (int attempt = 0; attempt <= retries; attempt++) {
+			if (attempt > 0) {
+				try {
+					Thread.sleep(BACKOFF << (attempt - 1));
+				} catch (InterruptedException e) {	// the trip was cancelled
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("geocoding interrupted");
+				}
+			}
+			if (!b.allow()) {
+				throw failure != null ? failure : new IOException("geocoder unavailable, too many failed requests");
+			}
+			try {
+				Restaurant newRes = geocode(url, zip, add);
+				b.success();
+				return newRes;
+			} catch (NoLocation e) {	// the server answered, so it is up
+				b.success();
+				throw e;
+			} catch (KeyRefused e) {	// a failure, but asking again will not help
+				b.failure();
+				throw e;
+			} catch (IOException e) {
+				b.failure();
+				failure = e;
+			} catch (RuntimeException e) {	// every allowed call reports back, or an open circuit's trial never ends
+				b.failure();
+				throw e;
+			}
+		}
+		throw failure;
+	}
+	
+	/**
+	 * @brief An answer of the Locations endpoint without coordinates for an address.
+	 */
+	private static class NoLocation extends IOException {
+		private static final long serialVersionUID = 1L;
+
+		NoLocation(String message, Throwable cause) {
+			super(message, cause);
+		}
+	}
+	
+	/**
+	 * @brief An answer of the Locations endpoint that refuses the key, 401 or 403.
+	 */
+	private static class KeyRefused extends IOException {
+		private static final long serialVersionUID = 1L;
+
+		KeyRefused(String message) {
+			super(message);
+		}
+	}
+	
+	/**
+	 * @brief return the url of the request for an address
+	 * @throws MalformedURLException if the address does not make a valid url
+	 */
+	private static URL url(String zip, String city, String add) throws MalformedURLException {
 		String addy = add;
 		if (city.contains(" ")) {	// if the city contains spaces, replace them with a + 
 			city = city.replace(" ", "+");
@@ -43,31 +290,51 @@ public class WebSearch {
 		if (add.contains(" ")) {	// if the address contains spaces, replace them with a +
 			addy = add.replace(" ", "+"); 
 		}	//these are replaced with a '+' so that the URL is in correct format as '+' represent spaces
-		URL url = new URL( //create a url with the user input in the correct format
-				"http://dev.virtualearth.net/REST/v1/Locations/US/CA/"+ zip + "/" + city + "/" + addy + "?o=json&key=AtZam4iKGy3WLVsVmr67w5NQj3gGBdwTGaw2F_mbRseTr8kCutdTfqg8eHWdcKNo");
+		return new URL( //create a url with the user input in the correct format
+				baseUrl + zip + "/" + city + "/" + addy + "?o=json&key=" + KEY);
+	}
+	
+	/**
+	 * @brief request the coordinates of an address from the Locations endpoint
+	 * @throws IOException if the request fails or the response has no coordinates
+	 */
+	private static Restaurant geocode(URL url, String zip, String add) throws IOException {
+		HttpURLConnection con = (HttpURLConnection) url.openConnection(); //initialize a connection
+		con.setRequestMethod("GET"); //create a GET request
+		con.setConnectTimeout(timeout); //a server that does not answer fails the request instead of blocking the trip
+		con.setReadTimeout(timeout);
+		int code = con.getResponseCode();
+		if (code == 400 || code == 404 || code == 410 || code == 422) { //the address was rejected, asking again will not help
+			con.disconnect();
+			throw new NoLocation("no coordinates for " + add + " " + zip + ", HTTP " + code, null);
+		}
+		if (code == 401 || code == 403) { //the key was refused, every request will fail until it is fixed
+			con.disconnect();
+			throw new KeyRefused("geocoder refused the key, HTTP " + code);
+		}
+		if (code >= 400) { //rate limited (429) or a server error, worth another try
+			con.disconnect();
+			throw new IOException("geocoder answered HTTP " + code + " for " + add + " " + zip);
+		}
+		BufferedReader in = new BufferedReader(new InputStreamReader(con.getInputStream())); //BufferedReader object to read input stream from connection
+		String inputLine;
+		StringBuffer content = new StringBuffer(); 
 		try {
-			HttpURLConnection con = (HttpURLConnection) url.openConnection(); //initialize a connection
-			con.setRequestMethod("GET"); //create a GET request
-			BufferedReader in = new BufferedReader(new InputStreamReader(con.getInputStream())); //BufferedReader object to read input stream from connection
-			String inputLine;
-			StringBuffer content = new StringBuffer(); 
 			while ((inputLine = in.readLine()) != null) { //read all the lines of the json file
 				content.append(inputLine); //put the current line read in string buffer
 			}
+		} finally {
 			in.close();
+		}
+		try {
 			Gson g = new Gson(); //create new Gson object from google class
 			Info loc = g.fromJson(content.toString(), Info.class); //Parse information from Json file into correct format using Info object
-			newRes = new Restaurant(" ",  
+			return new Restaurant(" ",  
 				Double.parseDouble(loc.getResourceSets()[0].getResources()[0].getPoint().getCoordinates()[0]), 
 				Double.parseDouble(loc.getResourceSets()[0].getResources()[0].getPoint().getCoordinates()[1]), 
 				add); //create new restaurant object, with correct latitude and longitude retreived from API request
-			return newRes;
-		} catch (IOException e) {
-
-			e.printStackTrace();
+		} catch (RuntimeException e) { // not json, or no location found, so nothing is cached
+			throw new NoLocation("no coordinates for " + add + " " + zip, e);
 		}
-		
-		newRes = new Restaurant(" ", 1.2, 3.4, " "); // if we cannot access the API database, use default information
-		return newRes;
 	}
 }
@@ -0,0 +1,62 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: This module provides an interface for an undirected
+ * edge weighted graph that shortest paths can be computed on.
+ */
+
+package graph;
+
+/**
+ * @brief Interface for an undirected edge weighted graph
+ * @detail The edges incident on a vertex are numbered from 0 to degree(v) - 1 and
+ * read with other and weight, so searches can walk the graph without creating
+ * edge objects.
+ */
+public interface WeightedGraph {
+
+    /**
+     * @brief return the number of vertices in graph
+     * @return the number of vertices in this graph
+     */
+    public int V();
+
+    /**
+     * @brief return the number of edges incident on a vertex
+     * @param v the vertex
+     * @return the degree of v
+     */
+    public int degree(int v);
+
+    /**
+     * @brief return the other end of the i-th edge incident on a vertex
+     * @param v the vertex
+     * @param i index of the edge, between 0 and degree(v) - 1
+     * @return the vertex at the other end of the edge
+     */
+    public int other(int v, int i);
+
+    /**
+     * @brief return the weight of the i-th edge incident on a vertex
+     * @param v the vertex
+     * @param i index of the edge, between 0 and degree(v) - 1
+     * @return the weight of the edge
+     */
+    public double weight(int v, int i);
+
+    /**
+     * @brief get the vertex of a restaurant
+     * @param  key Restaurant that maps to integer
+     * @return corresponding integer, null if the restaurant is not in this graph
+     */
+    public Integer map(Restaurant key);
+
+    /**
+     * @brief get the restaurant of a vertex
+     * @param  key integer that maps to restaurant
+     * @return corresponding restaurant
+     */
+    public Restaurant revMap(int key);
+
+}
@@ -7,9 +7,13 @@
 
 package gui;
 
+import java.io.IOException;
 import javax.swing.JFrame;
 import javax.swing.SwingUtilities;
 
+import graph.TripPlanner;
+import search.FacilityIndex;
+
 /**
  * @brief This class creates a graphical interface for users to interact with
  */
@@ -17,6 +21,25 @@ public class App {
 	
 	public static void main(String[] args) {
 		
+		// build the restaurant graph and search index in the background so the first
+		// trip or search does not wait for them; each is loaded even if the other fails
+		Thread loader = new Thread(new Runnable() {
+			public void run() {
+				try {
+					TripPlanner.baseGraph();
+				} catch (IOException | RuntimeException e) {
+					e.printStackTrace();
+				}
+				try {
+					FacilityIndex.load(MenuPanel.VIOLATIONS_FILE, MenuPanel.INSPECTIONS_FILE);
+				} catch (IOException | RuntimeException e) {
+					e.printStackTrace();
+				}
+			}
+		});
+		loader.setDaemon(true);
+		loader.start();
+		
 		SwingUtilities.invokeLater(new Runnable() {
 			public void run() {
 				JFrame frame = new MainFrame("SafeFoods");
@@ -13,6 +13,8 @@ import java.awt.Dimension;
 import javax.swing.JEditorPane;
 import javax.swing.JFrame;
 import javax.swing.JScrollPane;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
 
 import gui.MenuPanel;
 import gui.MenuEvent;
@@ -27,7 +29,6 @@ public class MainFrame extends JFrame {
 	
 	private static final long serialVersionUID = -3188591488628667286L;
 	private MenuPanel menuPanel;
-	private int length = 0;
 	
 	
 	/**
@@ -40,7 +41,7 @@ public class MainFrame extends JFrame {
 		
 		setLayout(new BorderLayout());
 		
-        JEditorPane editorPane = new JEditorPane();
+        final JEditorPane editorPane = new JEditorPane();
         editorPane.setEditable(true);
         JScrollPane editorScrollPane = new JScrollPane(editorPane);
         editorScrollPane.setVerticalScrollBarPolicy(
@@ -53,20 +54,19 @@ public class MainFrame extends JFrame {
 		menuPanel.addMenuListener(new MenuListener() {
 			public void menuEventOccured(MenuEvent event) {
 				
-				String text;
-				// the following is a desperate attempt to fix a mistake which I have no idea how I caused
-				if (length == 0 || event.getText().length() < 40) {
-					text = event.getText();
-					if (event.getText().length() > 40)
-						length = event.getText().length();
+				// the first section of a search replaces the old output, the next ones are
+				// inserted at the end of the document so a report is never copied again
+				if (!event.isAppend()) {
+					editorPane.setText(event.getText());
+					return;
 				}
-				else {
-					text = event.getText().substring(length);
-					length += event.getText().length() - length;
+				Document document = editorPane.getDocument();
+				try {
+					document.insertString(document.getLength(), event.getText(), null);
+				} catch (BadLocationException e) {
+					e.printStackTrace();
 				}
 				
-				editorPane.setText(text);;
-				
 			}
 		});
 		
@@ -16,6 +16,7 @@ public class MenuEvent extends EventObject {
 	
 	private static final long serialVersionUID = 2426197396508438774L;
 	private String text;
+	private boolean append;
 
 	/**
 	 * @brief Constructor for the MenuEvent Class
@@ -23,8 +24,19 @@ public class MenuEvent extends EventObject {
 	 * @param text Text to be displayed
 	 */
 	public MenuEvent(Object source, String text) {
+		this(source, text, false);
+	}
+	
+	/**
+	 * @brief Constructor for the MenuEvent Class
+	 * @param source An object
+	 * @param text Text to be displayed
+	 * @param append True if the text follows the text already displayed, false if it replaces it
+	 */
+	public MenuEvent(Object source, String text, boolean append) {
 		super(source);
 		this.text = text;
+		this.append = append;
 	}
 	
 	/**
@@ -35,4 +47,12 @@ public class MenuEvent extends EventObject {
 		return text;
 	}
 	
+	/**
+	 * @brief Returns whether the text is added to the end of the text already displayed
+	 * @return True if the text is appended, false if it replaces the displayed text
+	 */
+	public boolean isAppend() {
+		return append;
+	}
+	
 }
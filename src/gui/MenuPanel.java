@@ -14,18 +14,28 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.concurrent.ExecutionException;
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.ButtonGroup;  
 import javax.swing.JRadioButton;
 import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.event.EventListenerList;
 
 import graph.TripPlanner;
-import search.FindRestaurant;
-import sort.Score;
+import search.FacilityIndex;
+import search.Inspection;
+import search.NameIndex;
+import search.SearchResult;
+import search.Violation;
 import gui.MenuEvent;
 import gui.MenuListener;
 
@@ -45,8 +55,13 @@ public class MenuPanel extends JPanel {
 	private String destCity;
 	private String destStreet;
 	private int numRest = 1;
-	private File violationsFile = new File("Clean Restaurant and Market Health Violations.csv");
-	private File inspectionsFile = new File("Clean Restaurant Inspections.csv");
+	static final File VIOLATIONS_FILE = new File("Clean Restaurant and Market Health Violations.csv");
+	static final File INSPECTIONS_FILE = new File("Clean Restaurant Inspections.csv");
+	private static final int SUGGESTIONS = 10; // number of similar names listed
+	private final JProgressBar progressBar = new JProgressBar();
+	private final JButton cancelBtn = new JButton("Cancel");
+	private Query running; // the query being run, null if there is none
+	private int generation = 0; // number of queries started, a query only outputs if it is the latest
 	
 	/**
      * @brief Constructor for MaiuPanel class
@@ -65,6 +80,7 @@ public class MenuPanel extends JPanel {
 		JLabel restaurantLabel = new JLabel("Restaurant name: ");
 		final JTextField restaurantField = new JTextField(14);
 		JButton restaurantBtn = new JButton("Is My Food Safe?");
+		JButton namesBtn = new JButton("Similar Names");
 		
 		JLabel startStreetLabel = new JLabel("Start street: ");
 		final JTextField startStreetField = new JTextField(14);
@@ -122,16 +138,35 @@ public class MenuPanel extends JPanel {
 
 			public void actionPerformed(ActionEvent e) {
 				
-				String restaurant = restaurantField.getText();
+				final String restaurant = restaurantField.getText().toUpperCase();
 				
 				if (restaurant.equals(""))
-					fireMenuEvent(new MenuEvent(this, "Please enter a restaurant name.\n"));
+					showMessage("Please enter a restaurant name.\n");
 				else
-					try {
-						output(restaurant.toUpperCase());
-					} catch (IOException e1) {
-						e1.printStackTrace();
-					}
+					runQuery("Searching for " + restaurant + "...", new Query() {
+						protected void query() throws IOException {
+							output(restaurant, this);
+						}
+					});
+	
+			}
+			
+		});
+		
+		namesBtn.addActionListener(new ActionListener() {
+
+			public void actionPerformed(ActionEvent e) {
+				
+				final String restaurant = restaurantField.getText().toUpperCase();
+				
+				if (restaurant.equals(""))
+					showMessage("Please enter a restaurant name.\n");
+				else
+					runQuery("Finding names like " + restaurant + "...", new Query() {
+						protected void query() throws IOException {
+							print(similarNames(restaurant));
+						}
+					});
 	
 			}
 			
@@ -149,14 +184,18 @@ public class MenuPanel extends JPanel {
 						destCityField.getText());
 				
 				if (!validAddress) 
-						fireMenuEvent(new MenuEvent(this, "Please enter a valid trip.\n"));
+						showMessage("Please enter a valid trip.\n");
 				
 				else {
-					try {
-						fireMenuEvent(new MenuEvent(this, TripPlanner.planTrip(startStreet, startCity, startZip, destStreet, destCity, destZip, numRest)));
-					} catch (IOException e1) {
-						e1.printStackTrace();
-					}
+					// the fields can change while the trip is planned, so plan it with their current values
+					final String sS = startStreet, sC = startCity, sZ = startZip;
+					final String dS = destStreet, dC = destCity, dZ = destZip;
+					final int n = numRest;
+					runQuery("Planning trip...", new Query() {
+						protected void query() throws IOException {
+							print(TripPlanner.planTrip(sS, sC, sZ, dS, dC, dZ, n));
+						}
+					});
 				}
 				
 			}
@@ -175,9 +214,9 @@ public class MenuPanel extends JPanel {
 						destCityField.getText());
 				
 				if (validAddress)
-					fireMenuEvent(new MenuEvent(this, "Trip saved.\n"));
+					showMessage("Trip saved.\n");
 				else
-					fireMenuEvent(new MenuEvent(this, "Please enter non-empty addresses.\n"));
+					showMessage("Please enter non-empty addresses.\n");
 			}
 			
 		});
@@ -186,10 +225,22 @@ public class MenuPanel extends JPanel {
 
 			public void actionPerformed(ActionEvent e) {
 				validAddress = false;
-				fireMenuEvent(new MenuEvent(this, "Trip cleared.\n"));
+				showMessage("Trip cleared.\n");
 			}
 		});
 		
+		cancelBtn.setEnabled(false);
+		cancelBtn.addActionListener(new ActionListener() {
+
+			public void actionPerformed(ActionEvent e) {
+				if (running != null)
+					running.cancel(true);
+			}
+		});
+		
+		progressBar.setStringPainted(true);
+		progressBar.setString("");
+		
 		// determines the location of components on the panel
 		
 		setLayout(new GridBagLayout());
@@ -214,6 +265,12 @@ public class MenuPanel extends JPanel {
 		gc.gridy = 3;
 		add(restaurantBtn, gc);
 		
+		gc.weighty = 10;
+		gc.anchor = GridBagConstraints.FIRST_LINE_START;
+		gc.gridx = 0;
+		gc.gridy = 3;
+		add(namesBtn, gc);
+		
 		gc.anchor = GridBagConstraints.LINE_START;
 		gc.weightx = 0.5;
 		gc.weighty = 0.5;
@@ -328,6 +385,153 @@ public class MenuPanel extends JPanel {
 		gc.gridy = 14;
 		add(tripBtn, gc);
 		
+		gc.weighty = 10;
+		gc.anchor = GridBagConstraints.FIRST_LINE_START;
+		gc.gridx = 0;
+		gc.gridy = 15;
+		add(cancelBtn, gc);
+		
+		gc.weighty = 10;
+		gc.anchor = GridBagConstraints.FIRST_LINE_START;
+		gc.fill = GridBagConstraints.HORIZONTAL;
+		gc.gridx = 1;
+		gc.gridy = 15;
+		gc.gridwidth = 2;
+		add(progressBar, gc);
+		
+	}
+	
+	/**
+     * @brief Replaces the output with a message
+     * @details Any query still running is cancelled first, and the generation is
+     *          increased so it outputs nothing after the message.
+     * @param message The message to output
+     */
+	private void showMessage(String message) {
+		
+		generation++;
+		if (running != null)
+			running.cancel(true);
+		
+		running = null;
+		progressBar.setIndeterminate(false);
+		progressBar.setValue(0);
+		progressBar.setString("");
+		cancelBtn.setEnabled(false);
+		
+		fireMenuEvent(new MenuEvent(this, message));
+	}
+	
+	/**
+     * @brief Runs a query on a background thread and outputs its result
+     * @details Any query still running is cancelled, so only the result of the
+     *          latest query is output even if an older one finishes after it.
+     *          The progress bar runs and the cancel button is enabled until the
+     *          query is done.
+     * @param status The text shown on the progress bar while the query runs
+     * @param query The query to run
+     */
+	private void runQuery(String status, final Query query) {
+		
+		query.id = ++generation; // before the cancel, so the query it stops outputs nothing
+		if (running != null)
+			running.cancel(true);
+		
+		running = query;
+		progressBar.setIndeterminate(true);
+		progressBar.setString(status);
+		cancelBtn.setEnabled(true);
+		
+		query.addPropertyChangeListener(new PropertyChangeListener() {
+			
+			public void propertyChange(PropertyChangeEvent event) {
+				if (query.id == generation && "progress".equals(event.getPropertyName())) {
+					progressBar.setIndeterminate(false);
+					progressBar.setValue((Integer) event.getNewValue());
+				}
+			}
+			
+		});
+		query.execute();
+		
+	}
+	
+	/**
+     * @brief A query that runs in the background and outputs its text one section at a time
+     * @details The first section replaces the text of the last query and the next ones
+     *          are appended to it, so a long report shows up as it is built. Sections of
+     *          a query that was cancelled or replaced by a newer one are dropped.
+     */
+	private abstract class Query extends SwingWorker<Void, Void> {
+		
+		private int id; // generation of the query
+		private volatile boolean printed = false; // true once a section has been output
+		
+		/**
+	     * @brief Runs the query off the event dispatch thread, calling print with each section
+	     */
+		protected abstract void query() throws IOException;
+		
+		protected Void doInBackground() throws IOException {
+			query();
+			return null;
+		}
+		
+		/**
+	     * @brief Outputs the next section of the text of the query
+	     * @details Sections are output on the event dispatch thread in the order they are
+	     *          printed, and before done is called
+	     * @param section The text of the section
+	     */
+		void print(final String section) {
+			
+			final boolean append = printed;
+			printed = true;
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run() {
+					if (id == generation && !isCancelled())
+						fireMenuEvent(new MenuEvent(MenuPanel.this, section, append));
+				}
+			});
+			
+		}
+		
+		/**
+	     * @brief Shows how much of the query is done on the progress bar
+	     * @param done The number of steps done
+	     * @param total The number of steps of the query
+	     */
+		void progress(int done, int total) {
+			setProgress(done * 100 / total);
+		}
+		
+		protected void done() {
+			
+			if (id != generation) // a newer query has started, its output replaces this one
+				return;
+			
+			running = null;
+			progressBar.setIndeterminate(false);
+			progressBar.setValue(0);
+			progressBar.setString("");
+			cancelBtn.setEnabled(false);
+			
+			if (isCancelled()) {
+				fireMenuEvent(new MenuEvent(MenuPanel.this, newLine + "Cancelled." + newLine, printed));
+				return;
+			}
+			
+			try {
+				get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				e.getCause().printStackTrace();
+				fireMenuEvent(new MenuEvent(MenuPanel.this, "Error: " + e.getCause().getMessage() + newLine, printed));
+			}
+			
+		}
+		
 	}
 	
 	/**
@@ -405,59 +609,82 @@ public class MenuPanel extends JPanel {
 	
 	/**
      * @brief Outputs the violations and inspections of a restaurant
+     * @details Each address of the restaurant is printed as soon as its section is built
      * @param restaurant The restaurant the user wishes to inspect
+     * @param out The query the sections are printed to
      */
-	private void output(String restaurant) throws IOException {
+	private void output(String restaurant, Query out) throws IOException {
 
-		FindRestaurant fr = new FindRestaurant(restaurant, violationsFile, inspectionsFile);
-		boolean found1 = fr.getFound();
-		System.out.println(restaurant);
-		System.out.println(found1);
-		String details = "";
-		
-        if (found1 == true) {
-            
-            for (int i = 0; i < fr.getViolationArrayList().size(); i ++) {
-                
-                details += fr.getInspectionArrayList().get(i).get(0).getFacilityName() + ", ";
-                details += fr.getInspectionArrayList().get(i).get(0).getFacilityAddress() + newLine + newLine;
-                
-                details += "VIOLATIONS:" + newLine;
-                boolean noViolations = fr.getViolationArrayList().get(i).size() > 0 ? false : true;
-                
-                if (noViolations)
-                    details += "None" + newLine;
-                
-                else {
-                    details += String.format("%-47s %s - %s","Date", "Service Type", "Violation Description") + newLine;
-                    for (int j = 0; j < fr.getViolationArrayList().get(i).size(); j ++) {
-                        details += String.format("%-30s %s - %s", 
-                                fr.getViolationArrayList().get(i).get(j).getActivityDate(), 
-                                fr.getViolationArrayList().get(i).get(j).getServiceDescription(), 
-                                fr.getViolationArrayList().get(i).get(j).getViolationDescription()) 
-                                + newLine;
-                    }             
-                }
-                
-                details += newLine + "INSPECTIONS:" + newLine;
-                details += String.format("%-20s %s", "Date", "Grade") + newLine;
-                
-                for (int k = 0; k < fr.getInspectionArrayList().get(i).size(); k ++) {
-                    details += String.format("%-15s %s", fr.getInspectionArrayList().get(i).get(k).getActivityDate(), 
-                    		fr.getInspectionArrayList().get(i).get(k).getGrade()) + newLine;
-                }
-                
-                details += newLine + "SafeFoodsScore: " + Score.safeFoodScore(fr.getViolationArrayList().get(i), 
-                        fr.getInspectionArrayList().get(i)) + newLine + newLine;
-                
-            }
-            
-        }
+		FacilityIndex index = FacilityIndex.load(VIOLATIONS_FILE, INSPECTIONS_FILE);
+		SearchResult result = index.search(restaurant);
+		List<List<Violation>> violations = result.getViolations();
+		List<List<Inspection>> inspections = result.getInspections();
+		
+		if (!result.isFound()) {
+			out.print("Restaurant not found." + newLine + newLine + similarNames(restaurant));
+			return;
+		}
+		
+		StringBuilder details = new StringBuilder();
+		
+		for (int i = 0; i < violations.size() && !out.isCancelled(); i ++) {
+			
+			details.setLength(0);
+			String name = inspections.get(i).get(0).getFacilityName();
+			String address = inspections.get(i).get(0).getFacilityAddress();
+			details.append(name).append(", ").append(address).append(newLine).append(newLine);
+			
+			details.append("VIOLATIONS:").append(newLine);
+			
+			if (violations.get(i).isEmpty())
+				details.append("None").append(newLine);
+			
+			else {
+				details.append(String.format("%-47s %s - %s", "Date", "Service Type", "Violation Description")).append(newLine);
+				for (Violation v : violations.get(i)) {
+					details.append(String.format("%-30s %s - %s", 
+							v.getActivityDate(), 
+							v.getServiceDescription(), 
+							v.getViolationDescription()))
+							.append(newLine);
+				}
+			}
+			
+			details.append(newLine).append("INSPECTIONS:").append(newLine);
+			details.append(String.format("%-20s %s", "Date", "Grade")).append(newLine);
 			
-		else
-			details += "Restaurant not found." + newLine;
+			for (Inspection in : inspections.get(i)) {
+				details.append(String.format("%-15s %s", in.getActivityDate(), in.getGrade())).append(newLine);
+			}
+			
+			details.append(newLine).append("SafeFoodsScore: ").append(index.scores().score(name, address))
+					.append(newLine).append(newLine);
+			
+			out.print(details.toString());
+			out.progress(i + 1, violations.size());
+			
+		}
+		
+	}
+	
+	/**
+     * @brief Lists the facility names that start with, or close to, what the user typed
+     * @details one edit is allowed for every four characters typed, up to two
+     * @param restaurant The restaurant name typed by the user
+     * @return The similar names, one per line
+     */
+	private String similarNames(String restaurant) throws IOException {
+		
+		NameIndex names = FacilityIndex.load(VIOLATIONS_FILE, INSPECTIONS_FILE).names();
+		List<String> similar = names.suggest(restaurant, Math.min(2, restaurant.length() / 4), SUGGESTIONS);
+		
+		if (similar.isEmpty())
+			return "No similar restaurant names." + newLine;
 		
-		fireMenuEvent(new MenuEvent(this, details));
+		StringBuilder text = new StringBuilder("Similar restaurant names:").append(newLine);
+		for (String name : similar)
+			text.append(name).append(newLine);
+		return text.toString();
 		
 	}
 	
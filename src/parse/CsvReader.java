@@ -0,0 +1,282 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: This module reads csv files one record at a time,
+ * handling quoted fields, without splitting lines with a regex.
+ */
+
+package parse;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * @brief Streaming csv tokenizer
+ * @detail Reads the input in one pass with a small state machine. The fields of
+ * the current record are kept as slices of a reusable char buffer, so a String is
+ * only created when field(i) is called. Quoted fields may contain commas, newlines
+ * and doubled quotes (""), the surrounding quotes are removed.
+ */
+public class CsvReader implements Closeable {
+
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+			1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	private final Reader in;
+	private final char[] buf = new char[1 << 16];	// characters read from the input
+	private int pos;								// next character of buf to read
+	private int limit;								// number of valid characters in buf
+	private char[] record = new char[256];			// unquoted characters of the current record
+	private int[] starts = new int[16];				// starts[i] = offset of field i in record
+	private int[] ends = new int[16];				// ends[i] = end offset (exclusive) of field i in record
+	private int fields;								// number of fields in the current record
+
+	/**
+	 * @brief Constructor for CsvReader
+	 * @param in the input to read, it is read in large blocks so does not need to be buffered
+	 */
+	public CsvReader(Reader in) {
+		this.in = in;
+	}
+
+	/**
+	 * @brief Read the next record
+	 * @return true if a record was read, false at the end of the input
+	 * @throws IOException if the input cannot be read
+	 */
+	public boolean next() throws IOException {
+		int length = 0;
+		fields = 0;
+		int start = 0;
+		boolean quoted = false;
+		boolean any = false;	// true once a character of this record was read
+
+		while (true) {
+			if (pos == limit && !fill()) {
+				if (!any) return false;	// end of input
+				break;
+			}
+			char c = buf[pos++];
+			any = true;
+			if (quoted) {
+				if (c == '"') {
+					if (pos == limit) fill();
+					if (pos < limit && buf[pos] == '"') {	// doubled quote is a literal quote
+						pos++;
+						length = append(length, '"');
+					} else {
+						quoted = false;
+					}
+				} else {
+					length = append(length, c);
+				}
+			} else if (c == ',') {
+				endField(start, length);
+				start = length;
+			} else if (c == '\n') {
+				break;
+			} else if (c == '\r') {
+				if (pos == limit) fill();
+				if (pos < limit && buf[pos] == '\n') pos++;
+				break;
+			} else if (c == '"') {
+				quoted = true;
+			} else {
+				length = append(length, c);
+			}
+		}
+		endField(start, length);
+		return true;
+	}
+
+	/**
+	 * @brief return the number of fields in the current record
+	 * @return number of fields
+	 */
+	public int fields() {
+		return fields;
+	}
+
+	/**
+	 * @brief return true if the current record is an empty line
+	 * @return true if the record has a single empty field
+	 */
+	public boolean isBlank() {
+		return fields == 1 && starts[0] == ends[0];
+	}
+
+	/**
+	 * @brief return the length of a field
+	 * @param i index of the field
+	 * @return number of characters in the field
+	 */
+	public int length(int i) {
+		check(i);
+		return ends[i] - starts[i];
+	}
+
+	/**
+	 * @brief return a character of a field
+	 * @param i index of the field
+	 * @param j index of the character in the field
+	 * @return the character
+	 */
+	public char charAt(int i, int j) {
+		check(i);
+		return record[starts[i] + j];
+	}
+
+	/**
+	 * @brief find the first occurrence of a character in a field
+	 * @param i index of the field
+	 * @param c character to find
+	 * @return index of c in the field, -1 if it does not occur
+	 */
+	public int indexOf(int i, char c) {
+		check(i);
+		for (int j = starts[i]; j < ends[i]; j++) {
+			if (record[j] == c) return j - starts[i];
+		}
+		return -1;
+	}
+
+	/**
+	 * @brief return a field as a String
+	 * @param i index of the field
+	 * @return the field
+	 */
+	public String field(int i) {
+		check(i);
+		return new String(record, starts[i], ends[i] - starts[i]);
+	}
+
+	/**
+	 * @brief parse a field as an int, like Integer.parseInt
+	 * @param i index of the field
+	 * @return the value of the field
+	 * @throws NumberFormatException if the field is not an integer
+	 */
+	public int intField(int i) {
+		check(i);
+		int j = starts[i];
+		int end = ends[i];
+		boolean negative = false;
+		if (j < end && (record[j] == '-' || record[j] == '+')) {
+			negative = record[j] == '-';
+			j++;
+		}
+		if (j == end || end - j > 9) return Integer.parseInt(field(i)); // empty or could overflow, let parseInt decide
+		int value = 0;
+		for (; j < end; j++) {
+			int digit = record[j] - '0';
+			if (digit < 0 || digit > 9) throw new NumberFormatException("For input string: \"" + field(i) + "\"");
+			value = value * 10 + digit;
+		}
+		return negative ? -value : value;
+	}
+
+	/**
+	 * @brief parse part of a field as a double, like Double.parseDouble
+	 * @param i index of the field
+	 * @param from index of the first character in the field
+	 * @param to index after the last character in the field
+	 * @return the value of the characters, surrounding spaces are ignored
+	 * @throws NumberFormatException if the characters are not a number
+	 */
+	public double doubleField(int i, int from, int to) {
+		check(i);
+		int j = starts[i] + from;
+		int end = starts[i] + to;
+		while (j < end && record[j] == ' ') j++;
+		while (end > j && record[end - 1] == ' ') end--;
+
+		boolean negative = false;
+		if (j < end && (record[j] == '-' || record[j] == '+')) {
+			negative = record[j] == '-';
+			j++;
+		}
+		long mantissa = 0;
+		int digits = 0;
+		int decimals = -1;	// digits after the decimal point, -1 before the point
+		for (int k = j; k < end; k++) {
+			char c = record[k];
+			if (c >= '0' && c <= '9') {
+				mantissa = mantissa * 10 + (c - '0');
+				digits++;
+				if (decimals >= 0) decimals++;
+			} else if (c == '.' && decimals < 0) {
+				decimals = 0;
+			} else {
+				digits = -1;	// exponent or other syntax, let parseDouble handle it
+				break;
+			}
+		}
+		if (digits <= 0 || digits > 15 || decimals >= POWERS_OF_TEN.length) {
+			return Double.parseDouble(new String(record, starts[i] + from, to - from));
+		}
+		// both numbers are exact doubles, so the division is correctly rounded like parseDouble
+		double value = decimals > 0 ? mantissa / POWERS_OF_TEN[decimals] : mantissa;
+		return negative ? -value : value;
+	}
+
+	/**
+	 * @brief Close the input
+	 * @throws IOException if the input cannot be closed
+	 */
+	public void close() throws IOException {
+		in.close();
+	}
+
+	/**
+	 * @brief read the next block of the input into buf
+	 * @return false at the end of the input
+	 */
+	private boolean fill() throws IOException {
+		int n = in.read(buf, 0, buf.length);
+		pos = 0;
+		limit = Math.max(n, 0);
+		return n > 0;
+	}
+
+	/**
+	 * @brief add a character to the current record
+	 * @return the new length of the record
+	 */
+	private int append(int length, char c) {
+		if (length == record.length) {
+			char[] bigger = new char[record.length * 2];
+			System.arraycopy(record, 0, bigger, 0, length);
+			record = bigger;
+		}
+		record[length] = c;
+		return length + 1;
+	}
+
+	/**
+	 * @brief record the bounds of the field that just ended
+	 */
+	private void endField(int start, int end) {
+		if (fields == starts.length) {
+			int[] s = new int[fields * 2];
+			int[] e = new int[fields * 2];
+			System.arraycopy(starts, 0, s, 0, fields);
+			System.arraycopy(ends, 0, e, 0, fields);
+			starts = s;
+			ends = e;
+		}
+		starts[fields] = start;
+		ends[fields] = end;
+		fields++;
+	}
+
+	/**
+	 * @brief check that a field exists in the current record
+	 * @throws ArrayIndexOutOfBoundsException if it does not
+	 */
+	private void check(int i) {
+		if (i < 0 || i >= fields)
+			throw new ArrayIndexOutOfBoundsException("field " + i + " of a record with " + fields + " fields");
+	}
+}
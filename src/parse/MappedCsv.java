@@ -0,0 +1,385 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: This module reads large csv files by memory mapping them
+ * and parsing pieces of the file on several cores at once.
+ */
+
+package parse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * @brief Memory mapped, parallel csv loader
+ * @detail The file is split into chunks that end on a line break, and each chunk
+ * is mapped and parsed by its own task on the common fork join pool. Lines are
+ * never turned into Strings; a RowParser is given each record and only the fields
+ * it asks for are decoded. A field that is only needed as the id of its value is
+ * looked up by its bytes, and decoded only the first time its value is met in the
+ * chunk, so repeated values make no String per record. Records must not contain
+ * line breaks inside quoted fields. Characters are decoded with the platform
+ * charset, like FileReader.
+ */
+public class MappedCsv {
+
+	private static final long CHUNK_SIZE = 8L << 20;	// target size of the piece of file parsed by one task
+
+	/**
+	 * @brief Interface for turning a csv record into an object
+	 */
+	public interface RowParser<T> {
+
+		/**
+		 * @brief Create an object from a record
+		 * @param row the record, only valid during this call
+		 * @return the object, or null to skip the record
+		 */
+		public T parse(Row row);
+	}
+
+	/**
+	 * @brief Interface for giving each distinct value of a field an id
+	 */
+	public interface Interner {
+
+		/**
+		 * @brief Return the id of a value, adding the value if it is new
+		 * @param value the decoded field
+		 * @return the id of the value, the same for every equal value
+		 */
+		public int id(String value);
+	}
+
+	/**
+	 * @brief Parse every record of a csv file after the header line
+	 * @param file the csv file
+	 * @param parser turns each record into an object, called from several threads at once
+	 * @return the objects in the order of the records in the file
+	 * @throws IOException if the file cannot be read
+	 */
+	public static <T> ArrayList<T> parse(File file, final RowParser<T> parser) throws IOException {
+		final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			long size = channel.size();
+			long start = lineEnd(channel, 0, size);	// skip the header
+
+			ArrayList<Future<ArrayList<T>>> tasks = new ArrayList<Future<ArrayList<T>>>();
+			while (start < size) {
+				long end = lineEnd(channel, Math.min(start + CHUNK_SIZE, size), size);
+				final MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+				tasks.add(ForkJoinPool.commonPool().submit(new Callable<ArrayList<T>>() {
+					public ArrayList<T> call() {
+						return parseChunk(chunk, parser);
+					}
+				}));
+				start = end;
+			}
+
+			ArrayList<T> result = new ArrayList<T>();
+			for (Future<ArrayList<T>> task : tasks) {
+				result.addAll(task.get());
+			}
+			return result;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while reading " + file, e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			throw new IOException("could not read " + file, e.getCause());
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * @brief find the position just after the first line break at or after pos
+	 * @return the position after the line break, or size if there is none
+	 */
+	private static long lineEnd(FileChannel channel, long pos, long size) throws IOException {
+		ByteBuffer buf = ByteBuffer.allocate(4096);
+		while (pos < size) {
+			buf.clear();
+			int n = channel.read(buf, pos);
+			if (n <= 0) break;
+			for (int i = 0; i < n; i++) {
+				if (buf.get(i) == '\n') return pos + i + 1;
+			}
+			pos += n;
+		}
+		return size;
+	}
+
+	/**
+	 * @brief parse every record of a chunk that starts and ends on line boundaries
+	 * @detail The mapped bytes are copied in large blocks into a byte array and
+	 * line breaks are found with a plain loop over that array.
+	 */
+	private static <T> ArrayList<T> parseChunk(MappedByteBuffer chunk, RowParser<T> parser) {
+		ArrayList<T> result = new ArrayList<T>();
+		Row row = new Row();
+		byte[] block = new byte[1 << 16];
+		int length = 0;	// number of valid bytes in block
+		int start = 0;	// start of the current line in block
+		while (true) {
+			int end = start;
+			while (end < length && block[end] != '\n') end++;	// scan for the line break
+
+			if (end == length && chunk.hasRemaining()) {	// line continues past the block, read more
+				length -= start;
+				System.arraycopy(block, start, block, 0, length);
+				start = 0;
+				if (length == block.length) {
+					byte[] bigger = new byte[block.length * 2];
+					System.arraycopy(block, 0, bigger, 0, length);
+					block = bigger;
+				}
+				int n = Math.min(block.length - length, chunk.remaining());
+				chunk.get(block, length, n);
+				length += n;
+				continue;
+			}
+
+			int next = end + 1;
+			if (end > start && block[end - 1] == '\r') end--;
+			if (end > start) {	// skip blank lines
+				row.split(block, start, end);
+				T item = parser.parse(row);
+				if (item != null) result.add(item);
+			}
+			if (next >= length && !chunk.hasRemaining()) return result;
+			start = next;
+		}
+	}
+
+	/**
+	 * @brief A record of a mapped csv file, whose fields are decoded when asked for
+	 */
+	public static class Row {
+		private byte[] data;						// bytes of the record
+		private int[] starts = new int[16];			// starts[i] = position of field i in data
+		private int[] ends = new int[16];			// ends[i] = end position (exclusive) of field i in data
+		private boolean[] quoted = new boolean[16];	// quoted[i] = field i contains quotes that must be removed
+		private int fields;
+		private byte[] scratch = new byte[256];
+		private final IdentityHashMap<Interner, Slices> seen = new IdentityHashMap<Interner, Slices>();	// ids of the values met in the chunk
+
+		/**
+		 * @brief find the fields of the record between positions from and to of data
+		 */
+		private void split(byte[] data, int from, int to) {
+			this.data = data;
+			fields = 0;
+			int i = from;
+			while (true) {
+				grow();
+				starts[fields] = i;
+				quoted[fields] = false;
+				boolean inQuotes = false;
+				for (; i < to; i++) {
+					byte b = data[i];
+					if (b == '"') {
+						quoted[fields] = true;
+						if (inQuotes && i + 1 < to && data[i + 1] == '"') i++;	// doubled quote inside quotes
+						else inQuotes = !inQuotes;
+					} else if (b == ',' && !inQuotes) {
+						break;
+					}
+				}
+				ends[fields] = i;
+				fields++;
+				if (i >= to) return;
+				i++;	// skip the comma
+			}
+		}
+
+		/**
+		 * @brief make room for one more field
+		 */
+		private void grow() {
+			if (fields < starts.length) return;
+			int n = starts.length * 2;
+			int[] s = new int[n];
+			int[] e = new int[n];
+			boolean[] q = new boolean[n];
+			System.arraycopy(starts, 0, s, 0, fields);
+			System.arraycopy(ends, 0, e, 0, fields);
+			System.arraycopy(quoted, 0, q, 0, fields);
+			starts = s;
+			ends = e;
+			quoted = q;
+		}
+
+		/**
+		 * @brief return the number of fields in the record
+		 * @return number of fields
+		 */
+		public int fields() {
+			return fields;
+		}
+
+		/**
+		 * @brief return true if a field is empty
+		 * @param i index of the field
+		 * @return true if the field has no characters
+		 */
+		public boolean isEmpty(int i) {
+			check(i);
+			return ends[i] == starts[i] || (quoted[i] && field(i).isEmpty());
+		}
+
+		/**
+		 * @brief decode a field as a String, removing quotes like CsvReader does
+		 * @param i index of the field
+		 * @return the field
+		 */
+		public String field(int i) {
+			check(i);
+			if (!quoted[i]) return new String(data, starts[i], ends[i] - starts[i], Charset.defaultCharset());
+			return new String(scratch, 0, unquote(i), Charset.defaultCharset());
+		}
+
+		/**
+		 * @brief return the id of a field's value, decoding the field only the first
+		 * time its bytes are met in the chunk
+		 * @param i index of the field
+		 * @param interner gives the ids of the decoded values, called from several threads at once
+		 * @return the id interner gives the field
+		 */
+		public int id(int i, Interner interner) {
+			check(i);
+			Slices slices = seen.get(interner);
+			if (slices == null) seen.put(interner, slices = new Slices());
+			if (!quoted[i]) return slices.id(data, starts[i], ends[i] - starts[i], interner);
+			return slices.id(scratch, 0, unquote(i), interner);
+		}
+
+		/**
+		 * @brief copy a quoted field to scratch without its quotes, like CsvReader does
+		 * @return the number of bytes copied
+		 */
+		private int unquote(int i) {
+			if (scratch.length < ends[i] - starts[i]) scratch = new byte[ends[i] - starts[i]];
+			int n = 0;
+			boolean inQuotes = false;
+			for (int j = starts[i]; j < ends[i]; j++) {
+				byte b = data[j];
+				if (b == '"') {
+					if (inQuotes && j + 1 < ends[i] && data[j + 1] == '"') scratch[n++] = data[++j];	// keep one quote of a doubled quote
+					else inQuotes = !inQuotes;
+				} else {
+					scratch[n++] = b;
+				}
+			}
+			return n;
+		}
+
+		/**
+		 * @brief parse a field as an int, like Integer.parseInt
+		 * @param i index of the field
+		 * @return the value of the field
+		 * @throws NumberFormatException if the field is not an integer
+		 */
+		public int intField(int i) {
+			check(i);
+			int j = starts[i];
+			int end = ends[i];
+			if (quoted[i]) return Integer.parseInt(field(i));
+			boolean negative = false;
+			if (j < end && (data[j] == '-' || data[j] == '+')) {
+				negative = data[j] == '-';
+				j++;
+			}
+			if (j == end || end - j > 9) return Integer.parseInt(field(i));	// empty or could overflow, let parseInt decide
+			int value = 0;
+			for (; j < end; j++) {
+				int digit = data[j] - '0';
+				if (digit < 0 || digit > 9) throw new NumberFormatException("For input string: \"" + field(i) + "\"");
+				value = value * 10 + digit;
+			}
+			return negative ? -value : value;
+		}
+
+		/**
+		 * @brief check that a field exists in the record
+		 * @throws ArrayIndexOutOfBoundsException if it does not
+		 */
+		private void check(int i) {
+			if (i < 0 || i >= fields)
+				throw new ArrayIndexOutOfBoundsException("field " + i + " of a record with " + fields + " fields");
+		}
+	}
+
+	/**
+	 * @brief Open addressing table from the bytes of a value to its id
+	 */
+	private static class Slices {
+		private byte[][] keys = new byte[64][];	// bytes of the values, null for a free slot
+		private int[] ids = new int[64];
+		private int size;
+
+		/**
+		 * @brief return the id of the value of bytes[from, from + length), asking the
+		 * interner the first time the value is met
+		 */
+		int id(byte[] bytes, int from, int length, Interner interner) {
+			int mask = keys.length - 1;
+			for (int k = hash(bytes, from, length) & mask; ; k = (k + 1) & mask) {
+				byte[] key = keys[k];
+				if (key == null) {
+					int id = interner.id(new String(bytes, from, length, Charset.defaultCharset()));
+					keys[k] = Arrays.copyOfRange(bytes, from, from + length);
+					ids[k] = id;
+					if (++size * 2 > keys.length) grow();
+					return id;
+				}
+				if (equal(key, bytes, from, length)) return ids[k];
+			}
+		}
+
+		/**
+		 * @brief double the number of slots
+		 */
+		private void grow() {
+			byte[][] oldKeys = keys;
+			int[] oldIds = ids;
+			keys = new byte[oldKeys.length * 2][];
+			ids = new int[oldKeys.length * 2];
+			int mask = keys.length - 1;
+			for (int j = 0; j < oldKeys.length; j++) {
+				if (oldKeys[j] == null) continue;
+				int k = hash(oldKeys[j], 0, oldKeys[j].length) & mask;
+				while (keys[k] != null) k = (k + 1) & mask;
+				keys[k] = oldKeys[j];
+				ids[k] = oldIds[j];
+			}
+		}
+
+		private static int hash(byte[] bytes, int from, int length) {
+			int h = 1;
+			for (int j = from; j < from + length; j++) h = 31 * h + bytes[j];
+			return h ^ (h >>> 16);
+		}
+
+		private static boolean equal(byte[] key, byte[] bytes, int from, int length) {
+			if (key.length != length) return false;
+			for (int j = 0; j < length; j++) {
+				if (key[j] != bytes[from + j]) return false;
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,135 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: This module turns the activity dates of the data sets
+ * into day numbers that can be compared and sorted.
+ */
+
+package search;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * @brief Parse activity dates into epoch days.
+ * @details Dates are accepted as year-month-day (2019-04-13, optionally followed by a
+ * time) or month/day/year (04/13/2019). The day number is the number of days since
+ * 1970-01-01, so later dates have larger numbers.
+ */
+public class ActivityDate {
+
+    /**
+     * @brief Day number of a date that could not be parsed, earlier than any real date.
+     */
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    /**
+     * @brief Return the day number of an activity date.
+     * @param date The activity date.
+     * @return Days since 1970-01-01, or UNKNOWN if the date cannot be parsed.
+     */
+    public static int epochDay(String date) {
+        if (date == null) return UNKNOWN;
+        int year, month, day;
+        if (date.length() >= 10 && date.charAt(4) == '-' && date.charAt(7) == '-') {
+            year = digits(date, 0, 4);
+            month = digits(date, 5, 7);
+            day = digits(date, 8, 10);
+        } else {
+            int slash1 = date.indexOf('/');
+            int slash2 = slash1 < 0 ? -1 : date.indexOf('/', slash1 + 1);
+            if (slash2 < 0) return UNKNOWN;
+            int end = slash2 + 1;
+            while (end < date.length() && Character.isDigit(date.charAt(end))) end++;
+            month = digits(date, 0, slash1);
+            day = digits(date, slash1 + 1, slash2);
+            year = digits(date, slash2 + 1, end);
+        }
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) return UNKNOWN;
+        return epochDay(year, month, day);
+    }
+
+    /**
+     * @brief Return the day number of a year, month and day.
+     * @details Uses the days from civil algorithm of Howard Hinnant, so no calendar
+     * objects are created.
+     * @param year The year.
+     * @param month The month, 1 to 12.
+     * @param day The day of the month, 1 to 31.
+     * @return Days since 1970-01-01.
+     */
+    public static int epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    /**
+     * @brief Return the day number of today in the local time zone.
+     * @return Days since 1970-01-01.
+     */
+    public static int today() {
+        long now = System.currentTimeMillis();
+        return (int) Math.floorDiv(now + TimeZone.getDefault().getOffset(now), 86400000L);
+    }
+
+    /**
+     * @brief Return the day number of a number of months before a day.
+     * @details The day of the month is kept, or moved back to the end of a shorter month.
+     * @param day Days since 1970-01-01.
+     * @param months Number of months to go back.
+     * @return Days since 1970-01-01.
+     */
+    public static int monthsBefore(int day, int months) {
+        return (int) LocalDate.ofEpochDay(day).minusMonths(months).toEpochDay();
+    }
+
+    /**
+     * @brief Return the records of a list that happened between two days.
+     * @details The list must be ordered most recent first, as the records of a
+     * Facility are, so the range is found with two binary searches.
+     * @param newestFirst The records, most recent first.
+     * @param fromDay The first day of the range.
+     * @param toDay The last day of the range.
+     * @return View of the records dated fromDay to toDay, most recent first.
+     */
+    public static <T extends Dated> List<T> between(List<T> newestFirst, int fromDay, int toDay) {
+        int from = firstAtOrBefore(newestFirst, toDay);
+        int to = fromDay == Integer.MIN_VALUE ? newestFirst.size() : firstAtOrBefore(newestFirst, fromDay - 1);
+        return newestFirst.subList(from, Math.max(from, to));
+    }
+
+    /**
+     * @brief find the first record of a list ordered most recent first dated day or earlier
+     * @return its index, the size of the list if there is none
+     */
+    private static <T extends Dated> int firstAtOrBefore(List<T> newestFirst, int day) {
+        int lo = 0, hi = newestFirst.size();
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            if (newestFirst.get(m).getActivityDay() > day) lo = m + 1;
+            else hi = m;
+        }
+        return lo;
+    }
+
+    /**
+     * @brief parse the decimal digits between from and to
+     * @return the value, or -1 if a character is not a digit
+     */
+    private static int digits(String s, int from, int to) {
+        if (from >= to) return -1;
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9) return -1;
+            value = value * 10 + d;
+        }
+        return value;
+    }
+}
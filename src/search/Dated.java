@@ -0,0 +1,20 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: Interface for records that happened on a date.
+ */
+
+package search;
+
+/**
+ * @brief Interface for records that have an activity date.
+ */
+public interface Dated {
+
+    /**
+     * @brief Return the date of the record as a day number.
+     * @return Days since 1970-01-01, ActivityDate.UNKNOWN if the date is not known.
+     */
+    public int getActivityDay();
+}
@@ -0,0 +1,37 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: The Dictionaries ADT holds the Dictionary of each String field
+ * of the records loaded together, such as the records of one snapshot.
+ */
+
+package search;
+
+/**
+ * @brief Dictionary of each String field of a set of violations and inspections.
+ * @details Records only store ids and shared Strings, so each record refers to the
+ * Dictionaries its ids belong to. Records loaded together share one Dictionaries,
+ * which is released with them once nothing refers to the records any more.
+ */
+public class Dictionaries {
+
+    /** @brief Restaurant names of violations and inspections. */
+    final Dictionary names = new Dictionary();
+    /** @brief Restaurant addresses of violations and inspections. */
+    final Dictionary addresses = new Dictionary();
+    /** @brief Activity dates of violations and inspections. */
+    final Dictionary dates = new Dictionary();
+    /** @brief Cities of inspections. */
+    final Dictionary cities = new Dictionary();
+    /** @brief Zip codes of violations and inspections. */
+    final Dictionary zips = new Dictionary();
+    /** @brief Letter grades of violations and inspections. */
+    final Dictionary grades = new Dictionary();
+    /** @brief Violation codes. */
+    final Dictionary codes = new Dictionary();
+    /** @brief Service descriptions of violations. */
+    final Dictionary services = new Dictionary();
+    /** @brief Violation descriptions. */
+    final Dictionary descriptions = new Dictionary();
+}
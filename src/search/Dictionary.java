@@ -0,0 +1,75 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: The Dictionary ADT gives each distinct String of a field a
+ * small int id, so records can store the id instead of their own String.
+ */
+
+package search;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import parse.MappedCsv;
+
+/**
+ * @brief Dictionary ADT that maps the distinct values of a field to ids and back.
+ * @details Ids are given out in the order values are first seen and never change.
+ * Values are only ever added, so a record only has to store the id of its value and
+ * the String is looked up when it is displayed. Adding and looking up values are
+ * safe from several threads at once, as the parallel csv loader needs. A Dictionary
+ * belongs to the records that use its ids, see Dictionaries.
+ */
+public class Dictionary implements MappedCsv.Interner {
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<String, Integer>();
+    private volatile String[] values = new String[16];  // values[id] = value with that id
+    private int size;
+
+    /**
+     * @brief Return the id of a value, adding the value if it is new.
+     * @param value The value.
+     * @return The id of the value.
+     */
+    public int id(String value) {
+        Integer id = ids.get(value);
+        if (id != null) return id;
+        synchronized (this) {
+            id = ids.get(value);
+            if (id != null) return id;
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size] = value;
+            id = size++;
+            values = values;    // publish the new entry before its id can be seen
+            ids.put(value, id);
+            return id;
+        }
+    }
+
+    /**
+     * @brief Return the value of an id.
+     * @param id An id returned by id(value).
+     * @return The value with that id.
+     */
+    public String get(int id) {
+        return values[id];
+    }
+
+    /**
+     * @brief Return the shared instance of a value, adding the value if it is new.
+     * @param value The value.
+     * @return A String equal to value that is shared by every record with that value.
+     */
+    public String canonical(String value) {
+        return get(id(value));
+    }
+
+    /**
+     * @brief Return the number of distinct values.
+     * @return Number of values.
+     */
+    public synchronized int size() {
+        return size;
+    }
+}
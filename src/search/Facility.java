@@ -0,0 +1,128 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: The Facility ADT is for storing the violations and
+ * inspections of every location of a restaurant with a given name.
+ */
+
+package search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @brief Facility ADT that stores the violations and inspections of a restaurant,
+ * grouped by address.
+ * @details Index i of the violation list and the inspection list belong to the same
+ * address. FacilityIndex orders the addresses alphabetically and the records of each
+ * address by date, most recent first. A Facility never changes once it is created.
+ */
+public class Facility {
+
+    private final String name;
+    private final List<List<Violation>> violations;
+    private final List<List<Inspection>> inspections;
+
+    /**
+     * @brief Facility ADT constructor.
+     * @param name The name of the restaurant.
+     * @param violations The violations of each address of the restaurant.
+     * @param inspections The inspections of each address of the restaurant.
+     */
+    public Facility(String name, ArrayList<ArrayList<Violation>> violations, ArrayList<ArrayList<Inspection>> inspections) {
+        this.name = name;
+        List<List<Violation>> v = new ArrayList<List<Violation>>();
+        for (ArrayList<Violation> list : violations) {
+            v.add(Collections.unmodifiableList(list));
+        }
+        List<List<Inspection>> in = new ArrayList<List<Inspection>>();
+        for (ArrayList<Inspection> list : inspections) {
+            in.add(Collections.unmodifiableList(list));
+        }
+        this.violations = Collections.unmodifiableList(v);
+        this.inspections = Collections.unmodifiableList(in);
+    }
+
+    /**
+     * @brief Facility ADT constructor that views a range of locations of a store.
+     * @param store The records of all restaurants.
+     * @param from The first location of the restaurant.
+     * @param to The location after the last location of the restaurant.
+     */
+    Facility(RecordStore store, int from, int to) {
+        this.name = store.name(from);
+        List<List<Violation>> v = new ArrayList<List<Violation>>(to - from);
+        List<List<Inspection>> in = new ArrayList<List<Inspection>>(to - from);
+        for (int l = from; l < to; l++) {
+            v.add(store.violations(l));
+            in.add(store.inspections(l));
+        }
+        this.violations = Collections.unmodifiableList(v);
+        this.inspections = Collections.unmodifiableList(in);
+    }
+
+    /**
+     * @brief Return the restaurant's name.
+     * @return Restaurant's name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @brief Return the number of addresses of the restaurant.
+     * @return Number of addresses.
+     */
+    public int size() {
+        return inspections.size();
+    }
+
+    /**
+     * @brief Return the violations of each address of the restaurant.
+     * @return Read only list of the violations of each address.
+     */
+    public List<List<Violation>> getViolations() {
+        return violations;
+    }
+
+    /**
+     * @brief Return the most recent inspection of an address in constant time.
+     * @param i The index of the address.
+     * @return The most recent inspection.
+     */
+    public Inspection getMostRecentInspection(int i) {
+        return inspections.get(i).get(0);
+    }
+
+    /**
+     * @brief Return the violations of an address between two days.
+     * @param i The index of the address.
+     * @param fromDay The first day, as days since 1970-01-01.
+     * @param toDay The last day, as days since 1970-01-01.
+     * @return Read only list of the violations, most recent first.
+     */
+    public List<Violation> getViolations(int i, int fromDay, int toDay) {
+        return ActivityDate.between(violations.get(i), fromDay, toDay);
+    }
+
+    /**
+     * @brief Return the inspections of an address between two days.
+     * @param i The index of the address.
+     * @param fromDay The first day, as days since 1970-01-01.
+     * @param toDay The last day, as days since 1970-01-01.
+     * @return Read only list of the inspections, most recent first.
+     */
+    public List<Inspection> getInspections(int i, int fromDay, int toDay) {
+        return ActivityDate.between(inspections.get(i), fromDay, toDay);
+    }
+
+    /**
+     * @brief Return the inspections of each address of the restaurant.
+     * @return Read only list of the inspections of each address.
+     */
+    public List<List<Inspection>> getInspections() {
+        return inspections;
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: This module loads the violations and inspections data sets
+ * once and indexes them by restaurant name, so searches do not reload them.
+ */
+
+package search;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import sort.ParallelMergesort;
+
+/**
+ * @brief Index of the violations and inspections of every restaurant, keyed by name
+ * @details The data sets are read and sorted once, from a Snapshot when there is an
+ * up to date one, then the records of each restaurant name are grouped by address
+ * into a Facility, a view of the locations of the name in a RecordStore. A search is
+ * then a single hash lookup. Restaurants with violations but no inspections are left
+ * out, as FindRestaurant always did. The index never changes once it is built, so it can be
+ * shared between threads. The values of the records are in the Dictionaries of the
+ * snapshot they were read from, which are released along with the index; load replaces
+ * the index of files that have changed since it was built.
+ */
+public class FacilityIndex {
+
+	private static final Map<String, FacilityIndex> loaded = new HashMap<String, FacilityIndex>(); // indexes already built, keyed by file paths
+
+	private long[] sources;	// length and modification time of the csv files, when built by load
+	private final Map<String, Facility> facilities = new HashMap<String, Facility>();
+	private final NameIndex names;
+	private final RecordStore store;
+	private final ScoreTable scores;
+
+	/**
+	 * @brief Return the index of a pair of data sets, building it the first time and
+	 * again whenever one of the files has changed
+	 * @param violationsFile the csv file which contains the violation history of restaurants
+	 * @param inspectionsFile the csv file which contains the inspection history of restaurants
+	 * @return the index of the two files
+	 * @throws IOException if a file cannot be read
+	 */
+	public static FacilityIndex load(File violationsFile, File inspectionsFile) throws IOException {
+		String key = violationsFile.getAbsolutePath() + File.pathSeparator + inspectionsFile.getAbsolutePath();
+		synchronized (loaded) {
+			long[] sources = { violationsFile.length(), violationsFile.lastModified(), inspectionsFile.length(), inspectionsFile.lastModified() };
+			FacilityIndex index = loaded.get(key);
+			if (index == null || !Arrays.equals(index.sources, sources)) {
+				loaded.remove(key);	// the old index and its dictionaries can be collected while the new one is built
+				Snapshot snapshot = snapshot(violationsFile, inspectionsFile);
+				index = new FacilityIndex(snapshot.violations(), snapshot.inspections());
+				index.sources = sources;
+				loaded.put(key, index);
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * @brief Read the sorted records from the snapshot of the csv files, or from the
+	 * csv files themselves if the snapshot is missing or stale
+	 * @details a snapshot built from the csv files is saved for the next run
+	 * @return the sorted records of the two files
+	 * @throws IOException if a csv file cannot be read
+	 */
+	private static Snapshot snapshot(File violationsFile, File inspectionsFile) throws IOException {
+		File snapshotFile = Snapshot.fileFor(violationsFile);
+		try {
+			Snapshot snapshot = Snapshot.read(snapshotFile, violationsFile, inspectionsFile);
+			if (snapshot != null) return snapshot;
+		} catch (IOException e) {
+			e.printStackTrace(); // unreadable snapshot, rebuild it
+		}
+
+		Snapshot snapshot = Snapshot.build(violationsFile, inspectionsFile);
+		if (violationsFile.isFile() && inspectionsFile.isFile()) {
+			try {
+				snapshot.write(snapshotFile, violationsFile, inspectionsFile);
+			} catch (IOException e) {
+				e.printStackTrace(); // the index still works without a snapshot
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * @brief constructor for FacilityIndex
+	 * @param v the violations of all restaurants, sorted in place by name, address and date
+	 * @param in the inspections of all restaurants, sorted in place by name, address and date
+	 */
+	public FacilityIndex(Violation[] v, Inspection[] in) {
+		ParallelMergesort.sort(v, Violation.BY_NAME_ADDRESS_DATE);
+		ParallelMergesort.sort(in, Inspection.BY_NAME_ADDRESS_DATE);
+
+		store = new RecordStore(v, in);
+
+		//the locations of a name are next to each other in the store
+		for (int l = 0; l < store.locations(); ) {
+			String name = store.name(l);
+			int end = l + 1;
+			while (end < store.locations() && store.name(end).equals(name)) end++;
+			facilities.put(name, new Facility(store, l, end));
+			l = end;
+		}
+		names = new NameIndex(distinctNames(in));
+		scores = new ScoreTable(store);
+	}
+
+	/**
+	 * @brief Find the restaurant with a name
+	 * @param name the exact name of the restaurant
+	 * @return the restaurant's violations and inspections by address, null if there are none
+	 */
+	public Facility lookup(String name) {
+		return facilities.get(name);
+	}
+
+	/**
+	 * @brief Return the columnar store of the records
+	 * @return the store the facilities are views of
+	 */
+	public RecordStore store() {
+		return store;
+	}
+
+	/**
+	 * @brief Return the SafeFoods score of every location
+	 * @return the score table of the store, rebuilt with the index when the csv files change
+	 */
+	public ScoreTable scores() {
+		return scores;
+	}
+
+	/**
+	 * @brief Return the index of every facility name that can be searched
+	 * @return the prefix and approximate name index
+	 */
+	public NameIndex names() {
+		return names;
+	}
+
+	/**
+	 * @brief Search for the restaurant with a name
+	 * @param name the exact name of the restaurant
+	 * @return the result of the search, which only refers to data in the index
+	 */
+	public SearchResult search(String name) {
+		return new SearchResult(name, facilities.get(name));
+	}
+
+	/**
+	 * @brief list each facility name of the sorted inspections once
+	 * @details a facility exists for a name exactly when the name has an inspection, so
+	 * these are the names search can find; names with only violations are left out
+	 * @return the names in increasing order
+	 */
+	private static ArrayList<String> distinctNames(Inspection[] in) {
+		ArrayList<String> distinct = new ArrayList<String>();
+		for (int j = 0; j < in.length; ) {
+			String name = in[j].getFacilityName();
+			distinct.add(name);
+			j = StringBinarySearch.upperBound(in, j, in.length, name);
+		}
+		return distinct;
+	}
+}
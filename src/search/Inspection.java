@@ -9,27 +9,49 @@
  package search;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.io.File;
-import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.FileNotFoundException;
+import java.nio.file.NoSuchFileException;
+
+import parse.CsvReader;
+import parse.MappedCsv;
 
 /**
  * @brief Inspection ADT that stores the information regarding a restaurants inspection.
  */
-public class Inspection implements Comparable<Inspection> {
+public class Inspection implements Comparable<Inspection>, Dated {
+
+    //Strings are shared with every record of the same value, the other fields are ids into a Dictionary
+    private final Dictionaries dictionaries;
+    private final String activityDate;
+    private final int activityDay;      // activityDate as days since 1970-01-01, parsed once
+    private final String facilityName;
+    private final String facilityAddress;
+    private final int facilityCity;
+    private final int facilityZip;
+    private final int score;
+    private final int grade;
 
-    private String activityDate;
-    private String facilityName;
-    private String facilityAddress;
-    private String facilityCity;
-    private String facilityZip;
-    private int score;
-    private String grade;
+    /**
+     * @brief Orders inspections by restaurant name, then address, then date with the
+     * most recent first, so the records of one address are next to each other.
+     */
+    public static final Comparator<Inspection> BY_NAME_ADDRESS_DATE = new Comparator<Inspection>() {
+        public int compare(Inspection a, Inspection b) {
+            int c = a.facilityName.compareTo(b.facilityName);
+            if (c != 0) return c;
+            c = a.facilityAddress.compareTo(b.facilityAddress);
+            if (c != 0) return c;
+            return Integer.compare(b.activityDay, a.activityDay);
+        }
+    };
 
     /**
      * @brief Inspection ADT constructor.
+     * @param dictionaries The dictionaries of the records loaded with this one.
      * @param date The data of the violation.
      * @param name The name of the restaurant.
      * @param address The address of the restaurant.
@@ -38,60 +60,75 @@ public class Inspection implements Comparable<Inspection> {
      * @param score The score out of 100 of a restaurant.
      * @param grade The letter grade of the restaurant.
      */
-    public Inspection(String date, String name, String address, String city, String zip, int score, String grade) {
+    public Inspection(Dictionaries dictionaries, String date, String name, String address, String city, String zip, int score, String grade) {
+        this(dictionaries, dictionaries.dates.canonical(date), ActivityDate.epochDay(date), dictionaries.names.canonical(name), dictionaries.addresses.canonical(address),
+                dictionaries.cities.id(city), dictionaries.zips.id(zip), score, dictionaries.grades.id(grade));
+    }
+
+    /**
+     * @brief Inspection ADT constructor for values that are already in the dictionaries.
+     * @param dictionaries The dictionaries the ids and shared Strings are from.
+     * @param date The shared String of the date, from dictionaries.dates.
+     * @param day The date as days since 1970-01-01, as ActivityDate.epochDay gives.
+     * @param name The shared String of the name, from dictionaries.names.
+     * @param address The shared String of the address, from dictionaries.addresses.
+     * @param city The id of the city in dictionaries.cities.
+     * @param zip The id of the zip code in dictionaries.zips.
+     * @param score The score out of 100 of a restaurant.
+     * @param grade The id of the letter grade in dictionaries.grades.
+     */
+    Inspection(Dictionaries dictionaries, String date, int day, String name, String address, int city, int zip, int score, int grade) {
+        this.dictionaries = dictionaries;
         this.activityDate = date;
+        this.activityDay = day;
         this.facilityName = name;
         this.facilityAddress = address;
         this.facilityCity = city;
         this.facilityZip = zip;
-        this.score = score;       
+        this.score = score;
         this.grade = grade;
     }
     /**
      * @brief Given a csv file of inspections of many restaurants, return an array of Inspection.
-     * The csv parser was based on an implementation by Stack Overflow - Bart Kiers CSV Parser.
+     * The file is read with the shared CsvReader.
      * @param inspectionFile The file of the inspections.
      * @exception IOException Generated if the bufferReader fails to read the file.
      * @return The array of inspections of all restaurants.
      */
     public static Inspection [] inspectionFileToArray(File inspectionFile) throws IOException {
+        return inspectionFileToArray(inspectionFile, new Dictionaries());
+    }
+
+    /**
+     * @brief Given a csv file of inspections of many restaurants, return an array of Inspection
+     * whose values are added to the given dictionaries.
+     * @param inspectionFile The file of the inspections.
+     * @param dictionaries The dictionaries shared with the records loaded together.
+     * @exception IOException Generated if the bufferReader fails to read the file.
+     * @return The array of inspections of all restaurants.
+     */
+    public static Inspection [] inspectionFileToArray(File inspectionFile, Dictionaries dictionaries) throws IOException {
         //Store inspections
         ArrayList<Inspection> inspections = new ArrayList<Inspection>();
         
         try {
-		    String line;
-		
-		    BufferedReader br = new BufferedReader(new FileReader(inspectionFile));
-		    String otherThanQuote = " [^\"] ";
-	        String quotedString = String.format(" \" %s* \" ", otherThanQuote);
-	        String regex = String.format("(?x) "+ // enable comments, ignore white spaces
-	                ",                         "+ // match a comma
-	                "(?=                       "+ // start positive look ahead
-	                "  (?:                     "+ //   start non-capturing group 1
-	                "    %s*                   "+ //     match 'otherThanQuote' zero or more times
-	                "    %s                    "+ //     match 'quotedString'
-	                "  )*                      "+ //   end group 1 and repeat it zero or more times
-	                "  %s*                     "+ //   match 'otherThanQuote'
-	                "  $                       "+ // match the end of the string
-	                ")                         ", // stop positive look ahead
-	                otherThanQuote, quotedString, otherThanQuote);
-        
+            CsvReader csv = new CsvReader(new FileReader(inspectionFile));
+
             //Read the header of the file
-            br.readLine();
+            csv.next();
 
             //Read until file is empty
-		    while ((line = br.readLine()) != null) {
-                //Split by commas
-                String[] fields = line.split(regex, -1);
+            while (csv.next()) {
+                if (csv.isBlank()) continue;
 
                 //Create inspection object using data read
-                Inspection i = new Inspection(fields[0],fields[1],fields[2],fields[3],fields[4],Integer.parseInt(fields[5]),fields[6]);
+                Inspection i = new Inspection(dictionaries, csv.field(0),csv.field(1),csv.field(2),csv.field(3),csv.field(4),csv.intField(5),csv.field(6));
                 
                 //Add Inspection object to arraylist
                 inspections.add(i);
             }
 
-            br.close();
+            csv.close();
         } catch (FileNotFoundException e) {
             e.printStackTrace();
         }	
@@ -105,12 +142,59 @@ public class Inspection implements Comparable<Inspection> {
         return inspectionArray;        
     }
 
+    /**
+     * @brief Given a csv file of inspections of many restaurants, return an array of Inspection.
+     * @detail Same result as inspectionFileToArray, but the file is memory mapped and
+     * parsed in parallel with MappedCsv, so loading is faster on several cores. The
+     * text fields are looked up in the dictionaries from their bytes, so a value is
+     * decoded once per chunk of the file instead of once per row.
+     * @param inspectionFile The file of the inspections.
+     * @exception IOException Generated if the file cannot be read.
+     * @return The array of inspections of all restaurants.
+     */
+    public static Inspection [] mapInspectionFile(File inspectionFile) throws IOException {
+        return mapInspectionFile(inspectionFile, new Dictionaries());
+    }
+
+    /**
+     * @brief Same as mapInspectionFile, with the values added to the given dictionaries.
+     * @param inspectionFile The file of the inspections.
+     * @param dictionaries The dictionaries shared with the records loaded together.
+     * @exception IOException Generated if the file cannot be read.
+     * @return The array of inspections of all restaurants.
+     */
+    public static Inspection [] mapInspectionFile(File inspectionFile, final Dictionaries dictionaries) throws IOException {
+        ArrayList<Inspection> inspections = new ArrayList<Inspection>();
+        try {
+            inspections = MappedCsv.parse(inspectionFile, new MappedCsv.RowParser<Inspection>() {
+                public Inspection parse(MappedCsv.Row row) {
+                    String date = dictionaries.dates.get(row.id(0, dictionaries.dates));
+                    return new Inspection(dictionaries, date, ActivityDate.epochDay(date), dictionaries.names.get(row.id(1, dictionaries.names)),
+                            dictionaries.addresses.get(row.id(2, dictionaries.addresses)), row.id(3, dictionaries.cities),
+                            row.id(4, dictionaries.zips), row.intField(5), row.id(6, dictionaries.grades));
+                }
+            });
+        } catch (NoSuchFileException e) {
+            e.printStackTrace();
+        }
+
+        return inspections.toArray(new Inspection[inspections.size()]);
+    }
+
     /**
      * @brief Return the restaurant's violation date.
      * @return Inspection activity date.
      */
     public String getActivityDate() {
         return this.activityDate;
+    }
+
+    /**
+     * @brief Return the inspection date as a day number.
+     * @return Days since 1970-01-01, ActivityDate.UNKNOWN if the date could not be parsed.
+     */
+    public int getActivityDay() {
+        return activityDay;
     } 
 
     /**
@@ -134,7 +218,7 @@ public class Inspection implements Comparable<Inspection> {
      * @return Restaurant's city.
      */
     public String getFacilityCity() {
-        return facilityCity;
+        return dictionaries.cities.get(facilityCity);
     }
 
     /**
@@ -142,7 +226,7 @@ public class Inspection implements Comparable<Inspection> {
      * @return Restaurant's zip code.
      */
     public String getFacilityZip() {
-        return facilityZip;
+        return dictionaries.zips.get(facilityZip);
     }
 
     /**
@@ -158,7 +242,7 @@ public class Inspection implements Comparable<Inspection> {
      * @return Restaurant's letter grade.
      */
     public String getGrade() {
-        return grade;
+        return dictionaries.grades.get(grade);
     }
     
     /**
@@ -166,7 +250,7 @@ public class Inspection implements Comparable<Inspection> {
      * @return String that has the information of a inspection.
      */
     public String toString() {
-        return activityDate + "," + facilityName + "," + facilityAddress + "," + facilityCity + "," + facilityZip + "," + score + "," + grade;
+        return activityDate + "," + facilityName + "," + facilityAddress + "," + getFacilityCity() + "," + getFacilityZip() + "," + score + "," + getGrade();
     }
 
 
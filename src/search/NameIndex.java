@@ -0,0 +1,297 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: This module indexes restaurant names in a ternary search
+ * trie for prefix and approximate name searches.
+ */
+
+package search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @brief Ternary search trie of facility names with top-k prefix and edit distance search
+ * @details The trie is stored in parallel primitive arrays instead of node objects and
+ * is built once from a sorted list of names, inserting the middle name first so the
+ * trie stays balanced. A search walks the trie keeping one row of the edit distance
+ * table per character, and stops following a branch once it can no longer produce a
+ * name good enough for the top k. The index never changes once it is built, so it can
+ * be shared between threads.
+ */
+public class NameIndex {
+
+    private static final int NONE = -1;
+
+    private final String[] names;   // the distinct names, sorted
+    private char[] ch;              // ch[x] = character of node x
+    private int[] lo;               // lo[x] = node of smaller characters, NONE if none
+    private int[] mid;              // mid[x] = node of the next character, NONE if none
+    private int[] hi;               // hi[x] = node of larger characters, NONE if none
+    private int[] value;            // value[x] = index in names of the name ending at x, NONE if none
+    private int nodes;              // number of nodes in use
+    private int root = NONE;
+    private int longest;            // length of the longest name
+
+    /**
+     * @brief Constructor for NameIndex
+     * @param sortedNames names sorted in increasing order, duplicates are ignored
+     */
+    public NameIndex(List<String> sortedNames) {
+        ArrayList<String> distinct = new ArrayList<String>();
+        for (String name : sortedNames) {
+            if (name.isEmpty()) continue;
+            if (distinct.isEmpty() || !distinct.get(distinct.size() - 1).equals(name)) distinct.add(name);
+        }
+        names = distinct.toArray(new String[distinct.size()]);
+
+        int capacity = 16;
+        for (String name : names) {
+            capacity += name.length();
+            longest = Math.max(longest, name.length());
+        }
+        ch = new char[capacity];
+        lo = new int[capacity];
+        mid = new int[capacity];
+        hi = new int[capacity];
+        value = new int[capacity];
+        insertBalanced(0, names.length - 1);
+        ch = Arrays.copyOf(ch, nodes);
+        lo = Arrays.copyOf(lo, nodes);
+        mid = Arrays.copyOf(mid, nodes);
+        hi = Arrays.copyOf(hi, nodes);
+        value = Arrays.copyOf(value, nodes);
+    }
+
+    /**
+     * @brief return the number of names in the index
+     * @return number of distinct names
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @brief Return the names that start with a prefix
+     * @param prefix the start of the names
+     * @param k largest number of names returned
+     * @return up to k names in alphabetical order
+     */
+    public List<String> complete(String prefix, int k) {
+        return search(prefix, 0, k, true);
+    }
+
+    /**
+     * @brief Return the names that start with something close to a query
+     * @details A name's distance is the smallest edit distance between the query and
+     * any prefix of the name, so names starting with the query come first
+     * @param query the start of the names, possibly misspelled
+     * @param maxEdits largest number of inserted, deleted or changed characters
+     * @param k largest number of names returned
+     * @return up to k names ordered by distance, then alphabetically
+     */
+    public List<String> suggest(String query, int maxEdits, int k) {
+        return search(query, maxEdits, k, true);
+    }
+
+    /**
+     * @brief Return the names whose whole edit distance to a query is small
+     * @param query the name, possibly misspelled
+     * @param maxEdits largest number of inserted, deleted or changed characters
+     * @param k largest number of names returned
+     * @return up to k names ordered by edit distance, then alphabetically
+     */
+    public List<String> similar(String query, int maxEdits, int k) {
+        return search(query, maxEdits, k, false);
+    }
+
+    /**
+     * @brief walk the trie for the best k names within maxEdits of query
+     * @param prefix true to measure the distance to the closest prefix of each name
+     */
+    private List<String> search(String query, int maxEdits, int k, boolean prefix) {
+        ArrayList<String> result = new ArrayList<String>();
+        if (k <= 0 || root == NONE) return result;
+        Search s = new Search(query, maxEdits, k, prefix, longest);
+        for (int j = 0; j <= query.length(); j++) s.rows[0][j] = j;
+        collect(root, 0, prefix ? query.length() : Integer.MAX_VALUE, s);
+
+        // the heap holds the best k names, pop them worst first
+        int n = s.size;
+        String[] sorted = new String[n];
+        for (int i = n - 1; i >= 0; i--) {
+            sorted[i] = names[(int) s.heap[0]];
+            s.pop();
+        }
+        result.addAll(Arrays.asList(sorted));
+        return result;
+    }
+
+    /**
+     * @brief visit node x and the nodes below it, in alphabetical order of their names
+     * @details since names are visited alphabetically, a later name can only replace
+     * one of the best k if it is strictly closer to the query
+     * @param depth number of characters consumed before x, rows[depth] is their row
+     * @param best smallest distance between the query and a prefix consumed so far
+     */
+    private void collect(int x, int depth, int best, Search s) {
+        int[] start = s.rows[depth];
+        int least = best;
+        for (int j = 0; j < start.length; j++) least = Math.min(least, start[j]);
+        if (!s.admits(least)) return;
+
+        while (x != NONE) {
+            if (lo[x] != NONE) collect(lo[x], depth, best, s);
+
+            //row of the edit distance table after consuming ch[x]
+            int[] prev = s.rows[depth];
+            int[] row = s.rows[depth + 1];
+            int n = s.query.length();
+            row[0] = prev[0] + 1;
+            int min = row[0];
+            for (int j = 1; j <= n; j++) {
+                int cost = s.query.charAt(j - 1) == ch[x] ? 0 : 1;
+                row[j] = Math.min(Math.min(row[j - 1], prev[j]) + 1, prev[j - 1] + cost);
+                min = Math.min(min, row[j]);
+            }
+            int nextBest = s.prefix ? Math.min(best, row[n]) : best;
+
+            if (value[x] != NONE) {
+                int distance = s.prefix ? nextBest : row[n];
+                if (distance <= s.maxEdits) s.offer(distance, value[x]);
+            }
+
+            //names below x are at least this far from the query
+            int bound = Math.min(nextBest, min);
+            if (mid[x] != NONE && s.admits(bound)) collect(mid[x], depth + 1, nextBest, s);
+            x = hi[x];
+        }
+    }
+
+    /**
+     * @brief insert names[from..to] with the middle name first, so the trie stays balanced
+     */
+    private void insertBalanced(int from, int to) {
+        if (from > to) return;
+        int m = (from + to) >>> 1;
+        insert(names[m], m);
+        insertBalanced(from, m - 1);
+        insertBalanced(m + 1, to);
+    }
+
+    /**
+     * @brief insert a name into the trie
+     */
+    private void insert(String name, int index) {
+        if (root == NONE) root = newNode(name.charAt(0));
+        int x = root;
+        int d = 0;
+        while (true) {
+            char c = name.charAt(d);
+            if (c < ch[x]) {
+                if (lo[x] == NONE) lo[x] = newNode(c);
+                x = lo[x];
+            } else if (c > ch[x]) {
+                if (hi[x] == NONE) hi[x] = newNode(c);
+                x = hi[x];
+            } else if (d < name.length() - 1) {
+                d++;
+                if (mid[x] == NONE) mid[x] = newNode(name.charAt(d));
+                x = mid[x];
+            } else {
+                value[x] = index;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @brief create a node for a character
+     * @return the new node
+     */
+    private int newNode(char c) {
+        int x = nodes++;
+        ch[x] = c;
+        lo[x] = NONE;
+        mid[x] = NONE;
+        hi[x] = NONE;
+        value[x] = NONE;
+        return x;
+    }
+
+    /**
+     * @brief State of one search, the rows of the edit distance table and the best names found
+     * @details The best names are kept in a max heap of longs packing the distance in
+     * the high half and the index of the name in the low half, so the worst name is on
+     * top and ties go to the alphabetically smaller name.
+     */
+    private static class Search {
+        final String query;
+        final int maxEdits;
+        final boolean prefix;
+        final int[][] rows;     // rows[d] = edit distance row after d characters of a name
+        final long[] heap;      // max heap of (distance, name index)
+        int size;
+
+        Search(String query, int maxEdits, int k, boolean prefix, int longest) {
+            this.query = query;
+            this.maxEdits = maxEdits;
+            this.prefix = prefix;
+            rows = new int[longest + 1][query.length() + 1];
+            heap = new long[k];
+        }
+
+        /**
+         * @brief return true if a name at this distance could still be among the best k
+         */
+        boolean admits(int distance) {
+            if (distance > maxEdits) return false;
+            return size < heap.length || distance < (int) (heap[0] >>> 32);
+        }
+
+        /**
+         * @brief add a name to the best k if it is better than the worst of them
+         */
+        void offer(int distance, int index) {
+            long key = (long) distance << 32 | index;
+            if (size < heap.length) {
+                heap[size] = key;
+                int i = size++;
+                while (i > 0 && heap[(i - 1) / 2] < heap[i]) {
+                    swap(i, (i - 1) / 2);
+                    i = (i - 1) / 2;
+                }
+            } else if (key < heap[0]) {
+                heap[0] = key;
+                sink();
+            }
+        }
+
+        /**
+         * @brief remove the worst name
+         */
+        void pop() {
+            heap[0] = heap[--size];
+            sink();
+        }
+
+        private void sink() {
+            int i = 0;
+            while (2 * i + 1 < size) {
+                int j = 2 * i + 1;
+                if (j + 1 < size && heap[j + 1] > heap[j]) j++;
+                if (heap[i] >= heap[j]) return;
+                swap(i, j);
+                i = j;
+            }
+        }
+
+        private void swap(int i, int j) {
+            long t = heap[i];
+            heap[i] = heap[j];
+            heap[j] = t;
+        }
+    }
+}
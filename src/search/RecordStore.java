@@ -0,0 +1,330 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: This module stores the numeric fields of the violations and
+ * inspections in columns, one primitive array per field.
+ */
+
+package search;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import sort.Score;
+
+/**
+ * @brief Columnar store of the violation and inspection records
+ * @details The records are sorted by name, address and date, so the records of one
+ * location (a name at an address) are a range of rows. Score, points, grade, date and
+ * location of every row are copied into parallel primitive arrays, so aggregates such
+ * as the SafeFoods score are tight loops over arrays instead of walks over objects.
+ * The Violation and Inspection objects stay available as the row view for display.
+ * Only locations that have at least one inspection exist; violations of other
+ * addresses have location -1. The store never changes once it is built.
+ */
+public class RecordStore {
+
+    private final Violation[] violations;
+    private final Inspection[] inspections;
+
+    //violation columns, by row
+    private final int[] violationScore;
+    private final int[] violationPoints;
+    private final byte[] violationGrade;        // id in grades
+    private final int[] violationDate;          // days since 1970-01-01
+    private final int[] violationLocation;      // location of the row, -1 if it has no inspections
+
+    //inspection columns, by row
+    private final int[] inspectionScore;
+    private final byte[] inspectionGrade;       // id in grades
+    private final int[] inspectionDate;         // days since 1970-01-01
+    private final int[] inspectionLocation;
+
+    //locations, violationFrom[l] to violationTo[l] - 1 are the violation rows of location l
+    private final int locations;
+    private final int[] violationFrom;
+    private final int[] violationTo;
+    private final int[] inspectionFrom;
+    private final int[] inspectionTo;
+
+    private final Dictionary grades = new Dictionary();    // letter grades of the rows
+    private final int[] gradeScore;             // gradeScore[g] = Score.gradeToScore of grade id g
+
+    /**
+     * @brief Constructor for RecordStore
+     * @param v the violations, sorted by name, address and date
+     * @param in the inspections, sorted by name, address and date
+     * @throws IllegalArgumentException if there are more than 256 distinct grades
+     */
+    public RecordStore(Violation[] v, Inspection[] in) {
+        violations = v;
+        inspections = in;
+
+        violationScore = new int[v.length];
+        violationPoints = new int[v.length];
+        violationGrade = new byte[v.length];
+        violationDate = new int[v.length];
+        violationLocation = new int[v.length];
+        for (int r = 0; r < v.length; r++) {
+            violationScore[r] = v[r].getScore();
+            violationPoints[r] = v[r].getPoints();
+            violationGrade[r] = gradeId(v[r].getGrade());
+            violationDate[r] = v[r].getActivityDay();
+        }
+
+        inspectionScore = new int[in.length];
+        inspectionGrade = new byte[in.length];
+        inspectionDate = new int[in.length];
+        inspectionLocation = new int[in.length];
+        for (int r = 0; r < in.length; r++) {
+            inspectionScore[r] = in[r].getScore();
+            inspectionGrade[r] = gradeId(in[r].getGrade());
+            inspectionDate[r] = in[r].getActivityDay();
+        }
+
+        //each run of inspections with the same name and address is a location
+        int count = 0;
+        for (int r = 0; r < in.length; r++) {
+            if (r == 0 || !sameLocation(in[r], in[r - 1])) count++;
+        }
+        locations = count;
+        violationFrom = new int[count];
+        violationTo = new int[count];
+        inspectionFrom = new int[count];
+        inspectionTo = new int[count];
+
+        //walk both arrays, violations of locations without inspections are skipped
+        Arrays.fill(violationLocation, -1);
+        int k = 0;
+        int l = 0;
+        for (int r = 0; r < in.length; l++) {
+            inspectionFrom[l] = r;
+            String name = in[r].getFacilityName();
+            String address = in[r].getFacilityAddress();
+            for (; r < in.length && sameLocation(in[r], in[inspectionFrom[l]]); r++) inspectionLocation[r] = l;
+            inspectionTo[l] = r;
+
+            while (k < v.length && compare(v[k], name, address) < 0) k++;
+            violationFrom[l] = k;
+            for (; k < v.length && compare(v[k], name, address) == 0; k++) violationLocation[k] = l;
+            violationTo[l] = k;
+        }
+
+        gradeScore = new int[grades.size()];
+        for (int g = 0; g < gradeScore.length; g++) {
+            gradeScore[g] = Score.gradeToScore(grades.get(g));
+        }
+    }
+
+    /**
+     * @brief return the number of locations
+     * @return number of distinct name and address pairs with an inspection
+     */
+    public int locations() {
+        return locations;
+    }
+
+    /**
+     * @brief return the name of a location
+     * @param l the location
+     * @return the restaurant name
+     */
+    public String name(int l) {
+        return inspections[inspectionFrom[l]].getFacilityName();
+    }
+
+    /**
+     * @brief return the address of a location
+     * @param l the location
+     * @return the restaurant address
+     */
+    public String address(int l) {
+        return inspections[inspectionFrom[l]].getFacilityAddress();
+    }
+
+    /**
+     * @brief return the violations of a location
+     * @param l the location
+     * @return read only view of the rows, most recent first
+     */
+    public List<Violation> violations(int l) {
+        return Collections.unmodifiableList(Arrays.asList(violations).subList(violationFrom[l], violationTo[l]));
+    }
+
+    /**
+     * @brief return the inspections of a location
+     * @param l the location
+     * @return read only view of the rows, most recent first
+     */
+    public List<Inspection> inspections(int l) {
+        return Collections.unmodifiableList(Arrays.asList(inspections).subList(inspectionFrom[l], inspectionTo[l]));
+    }
+
+    /**
+     * @brief return the most recent inspection of a location in constant time
+     * @param l the location
+     * @return the row of the inspection
+     */
+    public int mostRecentInspection(int l) {
+        return inspectionFrom[l];
+    }
+
+    /**
+     * @brief return the date of the most recent inspection of a location
+     * @param l the location
+     * @return days since 1970-01-01
+     */
+    public int lastInspectionDay(int l) {
+        return inspectionDate[inspectionFrom[l]];
+    }
+
+    /**
+     * @brief return the violations of a location between two days
+     * @param l the location
+     * @param fromDay the first day
+     * @param toDay the last day
+     * @return read only view of the rows, most recent first
+     */
+    public List<Violation> violations(int l, int fromDay, int toDay) {
+        return ActivityDate.between(violations(l), fromDay, toDay);
+    }
+
+    /**
+     * @brief return the inspections of a location between two days
+     * @param l the location
+     * @param fromDay the first day
+     * @param toDay the last day
+     * @return read only view of the rows, most recent first
+     */
+    public List<Inspection> inspections(int l, int fromDay, int toDay) {
+        return ActivityDate.between(inspections(l), fromDay, toDay);
+    }
+
+    /**
+     * @brief Count the inspections of all locations between two days
+     * @param fromDay the first day
+     * @param toDay the last day
+     * @return number of inspections dated fromDay to toDay
+     */
+    public int countInspections(int fromDay, int toDay) {
+        int count = 0;
+        for (int r = 0; r < inspectionDate.length; r++) {
+            if (inspectionDate[r] >= fromDay && inspectionDate[r] <= toDay) count++;
+        }
+        return count;
+    }
+
+    /**
+     * @brief Count the violations of all locations between two days
+     * @param fromDay the first day
+     * @param toDay the last day
+     * @return number of violations dated fromDay to toDay
+     */
+    public int countViolations(int fromDay, int toDay) {
+        int count = 0;
+        for (int r = 0; r < violationDate.length; r++) {
+            if (violationDate[r] >= fromDay && violationDate[r] <= toDay) count++;
+        }
+        return count;
+    }
+
+    /**
+     * @brief return the location of a violation row
+     * @param r the row
+     * @return the location, -1 if the address of the violation has no inspections
+     */
+    public int violationLocation(int r) {
+        return violationLocation[r];
+    }
+
+    /**
+     * @brief return the violation of a row
+     * @param r the row
+     * @return the violation
+     */
+    public Violation violation(int r) {
+        return violations[r];
+    }
+
+    /**
+     * @brief return the inspection of a row
+     * @param r the row
+     * @return the inspection
+     */
+    public Inspection inspection(int r) {
+        return inspections[r];
+    }
+
+    /**
+     * @brief return the number of violation rows
+     * @return number of violations
+     */
+    public int violationCount() {
+        return violations.length;
+    }
+
+    /**
+     * @brief return the number of inspection rows
+     * @return number of inspections
+     */
+    public int inspectionCount() {
+        return inspections.length;
+    }
+
+    /**
+     * @brief Calculate the SafeFoods score of a location from the columns
+     * @param l the location
+     * @return the same score as Score.safeFoodScore of the location's lists
+     */
+    public int safeFoodScore(int l) {
+        return Score.safeFoodScore(violationScore, violationPoints, violationGrade, violationFrom[l], violationTo[l],
+                inspectionScore, inspectionGrade, inspectionFrom[l], inspectionTo[l], gradeScore);
+    }
+
+    /**
+     * @brief Count the inspections of each grade
+     * @return counts[g] = number of inspections with the grade of id g, see grade(g)
+     */
+    public int[] inspectionGradeCounts() {
+        int[] counts = new int[256];
+        for (int r = 0; r < inspectionGrade.length; r++) {
+            counts[inspectionGrade[r] & 0xFF]++;
+        }
+        return Arrays.copyOf(counts, grades.size());
+    }
+
+    /**
+     * @brief return the letter grade of a grade id
+     * @param g the id, an index of inspectionGradeCounts
+     * @return the letter grade
+     */
+    public String grade(int g) {
+        return grades.get(g);
+    }
+
+    /**
+     * @brief return the grade id of a grade as a byte
+     */
+    private byte gradeId(String grade) {
+        int id = grades.id(grade);
+        if (id > 0xFF) throw new IllegalArgumentException("more than 256 distinct grades");
+        return (byte) id;
+    }
+
+    /**
+     * @brief return true if two inspections have the same name and address
+     */
+    private static boolean sameLocation(Inspection a, Inspection b) {
+        return a.getFacilityName().equals(b.getFacilityName()) && a.getFacilityAddress().equals(b.getFacilityAddress());
+    }
+
+    /**
+     * @brief compare the name and address of a violation with a location
+     */
+    private static int compare(Violation v, String name, String address) {
+        int c = v.getFacilityName().compareTo(name);
+        return c != 0 ? c : v.getFacilityAddress().compareTo(address);
+    }
+}
@@ -0,0 +1,218 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: This module precomputes the SafeFoods score of every restaurant
+ * location and ranks locations by score.
+ */
+
+package search;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * @brief Table of the SafeFoods score of every location, a name at an address
+ * @details The score of every location of a RecordStore is computed once from its
+ * columns when the index is built, so a display looks it up instead of walking the
+ * records. Like the store, the table does not change afterwards: new records arrive
+ * as changed csv files, and FacilityIndex.load then rebuilds the store, its Facility
+ * views and this table together, so a score always matches the records listed with
+ * it. Like FindRestaurant, only locations with at least one inspection have a score.
+ * Ranked queries select the best or worst n locations with a bounded heap over the
+ * locations of one zip code, or all locations, without sorting them.
+ * The table can be read from any thread.
+ */
+public class ScoreTable {
+
+    private final RecordStore store;
+    private final Map<String, Integer> ids = new HashMap<String, Integer>();       // name and address -> location
+    private final Map<String, IntList> byZip = new HashMap<String, IntList>();    // zip -> locations
+    private final IntList all = new IntList();                                    // every location
+    private final String[] zips;        // zip of the most recent inspection of the location
+    private final int[] scores;         // scores[l] = SafeFoods score of location l
+
+    /**
+     * @brief Build the table of every location of a store
+     * @param store the records of all restaurants
+     */
+    public ScoreTable(RecordStore store) {
+        this.store = store;
+        zips = new String[store.locations()];
+        scores = new int[store.locations()];
+        for (int l = 0; l < store.locations(); l++) {
+            ids.put(key(store.name(l), store.address(l)), l);
+            scores[l] = store.safeFoodScore(l);
+            zips[l] = store.inspection(store.mostRecentInspection(l)).getFacilityZip();
+            all.add(l);
+            IntList zip = byZip.get(zips[l]);
+            if (zip == null) byZip.put(zips[l], zip = new IntList());
+            zip.add(l);
+        }
+    }
+
+    /**
+     * @brief Return the SafeFoods score of a location
+     * @param name the restaurant name
+     * @param address the restaurant address
+     * @return the score, the same as Score.safeFoodScore of the location's records
+     * @throws IllegalArgumentException if the location has no inspections
+     */
+    public int score(String name, String address) {
+        Integer l = ids.get(key(name, address));
+        if (l == null)
+            throw new IllegalArgumentException(name + " at " + address + " has no inspections");
+        return scores[l];
+    }
+
+    /**
+     * @brief Return the locations with the lowest scores
+     * @param n largest number of locations returned
+     * @param zip zip code of the locations, null for every zip code
+     * @return up to n locations, lowest score first
+     */
+    public List<Entry> worst(int n, String zip) {
+        return select(n, zip, 1);
+    }
+
+    /**
+     * @brief Return the locations with the highest scores
+     * @param n largest number of locations returned
+     * @param zip zip code of the locations, null for every zip code
+     * @return up to n locations, highest score first
+     */
+    public List<Entry> best(int n, String zip) {
+        return select(n, zip, -1);
+    }
+
+    /**
+     * @brief select the n locations with the smallest sign * score
+     * @details keys pack sign * score in the high half and the location in the low
+     * half, so ties go to the location that is first alphabetically; a max heap of n
+     * keys holds the best candidates found so far
+     */
+    private List<Entry> select(int n, String zip, int sign) {
+        IntList candidates = zip == null ? all : byZip.get(zip);
+        if (candidates == null || n <= 0) return Collections.emptyList();
+
+        PriorityQueue<Long> heap = new PriorityQueue<Long>(Math.min(n, candidates.size) + 1, Collections.reverseOrder());
+        for (int i = 0; i < candidates.size; i++) {
+            int l = candidates.items[i];
+            long key = (long) (sign * scores[l]) << 32 | l;
+            if (heap.size() < n) heap.add(key);
+            else if (key < heap.peek()) {
+                heap.poll();
+                heap.add(key);
+            }
+        }
+
+        Entry[] ranked = new Entry[heap.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            int l = (int) (long) heap.poll();
+            ranked[i] = new Entry(store.name(l), store.address(l), zips[l], scores[l]);
+        }
+        return Collections.unmodifiableList(Arrays.asList(ranked));
+    }
+
+    /**
+     * @brief return the key of a name and address
+     */
+    private static String key(String name, String address) {
+        return name + '\n' + address;
+    }
+
+    /**
+     * @brief A location and its score
+     */
+    public static class Entry {
+        private final String name;
+        private final String address;
+        private final String zip;
+        private final int score;
+
+        Entry(String name, String address, String zip, int score) {
+            this.name = name;
+            this.address = address;
+            this.zip = zip;
+            this.score = score;
+        }
+
+        /**
+         * @brief Return the restaurant name.
+         * @return The name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @brief Return the restaurant address.
+         * @return The address.
+         */
+        public String getAddress() {
+            return address;
+        }
+
+        /**
+         * @brief Return the zip code of the restaurant.
+         * @return The zip code.
+         */
+        public String getZip() {
+            return zip;
+        }
+
+        /**
+         * @brief Return the SafeFoods score.
+         * @return The score.
+         */
+        public int getScore() {
+            return score;
+        }
+
+        /**
+         * @brief Return a String representing the entry.
+         * @return The score, name, address and zip code.
+         */
+        public String toString() {
+            return score + " " + name + ", " + address + " " + zip;
+        }
+    }
+
+    /**
+     * @brief growable list of ints
+     */
+    private static class IntList {
+        int[] items = new int[4];
+        int size;
+
+        void add(int x) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            items[size++] = x;
+        }
+    }
+
+    /**
+     * @brief Print the worst and best locations of the data sets.
+     * @param args The violations csv file, the inspections csv file, and optionally
+     * the zip code of the locations and the number of locations, which defaults to 10.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: java search.ScoreTable violations.csv inspections.csv [zip] [n]");
+            System.exit(1);
+        }
+        ScoreTable scores = FacilityIndex.load(new File(args[0]), new File(args[1])).scores();
+        String zip = args.length > 2 ? args[2] : null;
+        int n = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        System.out.println("worst:");
+        for (Entry e : scores.worst(n, zip)) System.out.println(e);
+        System.out.println("best:");
+        for (Entry e : scores.best(n, zip)) System.out.println(e);
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: The SearchResult ADT is for storing the result of
+ * searching for a restaurant by name.
+ */
+
+package search;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @brief SearchResult ADT that stores the violations and inspections found for a
+ * searched restaurant name.
+ * @details A SearchResult belongs to a single search and never changes, so it can be
+ * shared between threads. The lists are read only views of the index, nothing is
+ * copied.
+ */
+public class SearchResult {
+
+    private final String query;
+    private final Facility facility;
+
+    /**
+     * @brief SearchResult ADT constructor.
+     * @param query The name that was searched for.
+     * @param facility The restaurant found, null if none was found.
+     */
+    public SearchResult(String query, Facility facility) {
+        this.query = query;
+        this.facility = facility;
+    }
+
+    /**
+     * @brief Return the name that was searched for.
+     * @return The searched name.
+     */
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * @brief Return true if the searched name was found in the data set.
+     * @return True if the restaurant was found.
+     */
+    public boolean isFound() {
+        return facility != null;
+    }
+
+    /**
+     * @brief Return the number of addresses of the restaurant found.
+     * @return Number of addresses, 0 if the restaurant was not found.
+     */
+    public int size() {
+        return facility == null ? 0 : facility.size();
+    }
+
+    /**
+     * @brief Return the violations of each address of the restaurant found.
+     * @return Read only list of the violations of each address.
+     */
+    public List<List<Violation>> getViolations() {
+        return facility == null ? Collections.<List<Violation>>emptyList() : facility.getViolations();
+    }
+
+    /**
+     * @brief Return the inspections of each address of the restaurant found.
+     * @return Read only list of the inspections of each address.
+     */
+    public List<List<Inspection>> getInspections() {
+        return facility == null ? Collections.<List<Inspection>>emptyList() : facility.getInspections();
+    }
+}
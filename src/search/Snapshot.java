@@ -0,0 +1,360 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: This module saves the parsed and sorted violations and
+ * inspections in a compact binary file, so later runs can skip the csv files.
+ */
+
+package search;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import sort.ParallelMergesort;
+
+/**
+ * @brief Binary snapshot of the violation and inspection data sets
+ * @details The records are stored sorted by name, address and date. Every distinct
+ * String is stored once in a dictionary and each String field is a column of ids
+ * into it, ints such as points and score are stored as plain int columns. The header
+ * records the version of the format and the name, length and modification time of
+ * both csv files, and a snapshot whose csv files have changed is ignored. Reading
+ * maps the file, copies each column out with one bulk read and looks each distinct
+ * value up in its field Dictionary once. The records of a snapshot share the
+ * Dictionaries of the snapshot, so its ids are released with its records.
+ *
+ * Layout, big endian:
+ * header:       int MAGIC, int VERSION, then for each csv file: int byte length, UTF-8 name,
+ *               long length, long mtime
+ * dictionary:   int count, then per String: int byte length, UTF-8 bytes
+ * violations:   int n, then columns of n ints: date, zip, address, name, code, service,
+ *               grade, description (ids), points, score
+ * inspections:  int n, then columns of n ints: date, name, address, city, zip, grade (ids), score
+ */
+public class Snapshot {
+
+    private static final int MAGIC = 0x53465331;    // "SFS1"
+    private static final int VERSION = 2;           // increase whenever the layout changes
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final Dictionaries dictionaries;
+    private final Violation[] violations;
+    private final Inspection[] inspections;
+
+    /**
+     * @brief Constructor for Snapshot
+     * @param dictionaries The dictionaries of the records.
+     * @param violations The violations, sorted by name, address and date.
+     * @param inspections The inspections, sorted by name, address and date.
+     */
+    private Snapshot(Dictionaries dictionaries, Violation[] violations, Inspection[] inspections) {
+        this.dictionaries = dictionaries;
+        this.violations = violations;
+        this.inspections = inspections;
+    }
+
+    /**
+     * @brief Return the dictionaries of the snapshot.
+     * @return The dictionaries the values of the violations and inspections are in.
+     */
+    public Dictionaries dictionaries() {
+        return dictionaries;
+    }
+
+    /**
+     * @brief Return the violations of the snapshot.
+     * @return The violations, sorted by name, address and date.
+     */
+    public Violation[] violations() {
+        return violations;
+    }
+
+    /**
+     * @brief Return the inspections of the snapshot.
+     * @return The inspections, sorted by name, address and date.
+     */
+    public Inspection[] inspections() {
+        return inspections;
+    }
+
+    /**
+     * @brief Return the snapshot file used for a pair of csv files.
+     * @param violationsFile The csv file of violations.
+     * @return The file SafeFoods.snapshot next to the violations file.
+     */
+    public static File fileFor(File violationsFile) {
+        return new File(violationsFile.getAbsoluteFile().getParentFile(), "SafeFoods.snapshot");
+    }
+
+    /**
+     * @brief Parse and sort the csv files.
+     * @param violationsFile The csv file of violations.
+     * @param inspectionsFile The csv file of inspections.
+     * @exception IOException Generated if a file cannot be read.
+     * @return A snapshot of the two files.
+     */
+    public static Snapshot build(File violationsFile, File inspectionsFile) throws IOException {
+        Dictionaries dictionaries = new Dictionaries();
+        Violation[] v = Violation.mapViolationFile(violationsFile, dictionaries);
+        Inspection[] in = Inspection.mapInspectionFile(inspectionsFile, dictionaries);
+        ParallelMergesort.sort(v, Violation.BY_NAME_ADDRESS_DATE);
+        ParallelMergesort.sort(in, Inspection.BY_NAME_ADDRESS_DATE);
+        return new Snapshot(dictionaries, v, in);
+    }
+
+    /**
+     * @brief Read a snapshot if it is up to date with the csv files.
+     * @param snapshotFile The snapshot file.
+     * @param violationsFile The csv file of violations.
+     * @param inspectionsFile The csv file of inspections.
+     * @exception IOException Generated if the snapshot cannot be read or is corrupt.
+     * @return The snapshot, or null if it does not exist or the csv files changed.
+     */
+    public static Snapshot read(File snapshotFile, File violationsFile, File inspectionsFile) throws IOException {
+        if (!snapshotFile.isFile()) return null;
+        FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ);
+        try {
+            ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buf.remaining() < 8 || buf.getInt() != MAGIC || buf.getInt() != VERSION) return null;
+            if (!matches(buf, violationsFile) || !matches(buf, inspectionsFile)) return null;
+
+            String[] dictionary = new String[buf.getInt()];
+            byte[] bytes = new byte[256];
+            for (int i = 0; i < dictionary.length; i++) {
+                int length = buf.getInt();
+                if (bytes.length < length) bytes = new byte[length];
+                buf.get(bytes, 0, length);
+                dictionary[i] = new String(bytes, 0, length, UTF8);
+            }
+
+            Dictionaries fields = new Dictionaries();
+            Translation dates = new Translation(fields.dates, dictionary);
+            Translation names = new Translation(fields.names, dictionary);
+            Translation addresses = new Translation(fields.addresses, dictionary);
+            Translation zips = new Translation(fields.zips, dictionary);
+            Translation grades = new Translation(fields.grades, dictionary);
+
+            int n = buf.getInt();
+            int[][] c = columns(buf, n, 10);
+            Translation codes = new Translation(fields.codes, dictionary);
+            Translation services = new Translation(fields.services, dictionary);
+            Translation descriptions = new Translation(fields.descriptions, dictionary);
+            Violation[] v = new Violation[n];
+            for (int i = 0; i < n; i++) {
+                v[i] = new Violation(fields, dates.canonical(c[0][i]), dates.day(c[0][i]), zips.id(c[1][i]), addresses.canonical(c[2][i]), names.canonical(c[3][i]),
+                        codes.id(c[4][i]), services.id(c[5][i]), c[8][i], grades.id(c[6][i]), c[9][i], descriptions.id(c[7][i]));
+            }
+
+            n = buf.getInt();
+            c = columns(buf, n, 7);
+            Translation cities = new Translation(fields.cities, dictionary);
+            Inspection[] in = new Inspection[n];
+            for (int i = 0; i < n; i++) {
+                in[i] = new Inspection(fields, dates.canonical(c[0][i]), dates.day(c[0][i]), names.canonical(c[1][i]), addresses.canonical(c[2][i]),
+                        cities.id(c[3][i]), zips.id(c[4][i]), c[6][i], grades.id(c[5][i]));
+            }
+            return new Snapshot(fields, v, in);
+        } catch (RuntimeException e) { // truncated file or id out of range
+            throw new IOException("corrupt snapshot " + snapshotFile, e);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * @brief Write the snapshot, replacing the file only once it is complete.
+     * @param snapshotFile The snapshot file.
+     * @param violationsFile The csv file of violations the snapshot was built from.
+     * @param inspectionsFile The csv file of inspections the snapshot was built from.
+     * @exception IOException Generated if the file cannot be written.
+     */
+    public void write(File snapshotFile, File violationsFile, File inspectionsFile) throws IOException {
+        Map<String, Integer> ids = new HashMap<String, Integer>();
+        ArrayList<String> dictionary = new ArrayList<String>();
+        int[][] vc = new int[10][violations.length];
+        for (int i = 0; i < violations.length; i++) {
+            Violation v = violations[i];
+            vc[0][i] = id(v.getActivityDate(), ids, dictionary);
+            vc[1][i] = id(v.getFacilityZip(), ids, dictionary);
+            vc[2][i] = id(v.getFacilityAddress(), ids, dictionary);
+            vc[3][i] = id(v.getFacilityName(), ids, dictionary);
+            vc[4][i] = id(v.getViolationCode(), ids, dictionary);
+            vc[5][i] = id(v.getServiceDescription(), ids, dictionary);
+            vc[6][i] = id(v.getGrade(), ids, dictionary);
+            vc[7][i] = id(v.getViolationDescription(), ids, dictionary);
+            vc[8][i] = v.getPoints();
+            vc[9][i] = v.getScore();
+        }
+        int[][] ic = new int[7][inspections.length];
+        for (int i = 0; i < inspections.length; i++) {
+            Inspection in = inspections[i];
+            ic[0][i] = id(in.getActivityDate(), ids, dictionary);
+            ic[1][i] = id(in.getFacilityName(), ids, dictionary);
+            ic[2][i] = id(in.getFacilityAddress(), ids, dictionary);
+            ic[3][i] = id(in.getFacilityCity(), ids, dictionary);
+            ic[4][i] = id(in.getFacilityZip(), ids, dictionary);
+            ic[5][i] = id(in.getGrade(), ids, dictionary);
+            ic[6][i] = in.getScore();
+        }
+
+        File temp = new File(snapshotFile.getPath() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 1 << 16));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeSource(out, violationsFile);
+            writeSource(out, inspectionsFile);
+            out.writeInt(dictionary.size());
+            for (String s : dictionary) {
+                byte[] bytes = s.getBytes(UTF8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            writeColumns(out, violations.length, vc);
+            writeColumns(out, inspections.length, ic);
+        } finally {
+            out.close();
+        }
+        try {
+            Files.move(temp.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @brief return the dictionary id of a String, adding it if it is new
+     */
+    private static int id(String s, Map<String, Integer> ids, ArrayList<String> dictionary) {
+        Integer id = ids.get(s);
+        if (id == null) {
+            id = dictionary.size();
+            ids.put(s, id);
+            dictionary.add(s);
+        }
+        return id;
+    }
+
+    /**
+     * @brief write the name, length and modification time of a csv file
+     */
+    private static void writeSource(DataOutputStream out, File csv) throws IOException {
+        byte[] name = csv.getName().getBytes(UTF8);   // same encoding as the dictionary, which matches reads back
+        out.writeInt(name.length);
+        out.write(name);
+        out.writeLong(csv.length());
+        out.writeLong(csv.lastModified());
+    }
+
+    /**
+     * @brief read the header entry of a csv file and compare it with the file
+     * @return true if the file has not changed since the snapshot was written
+     */
+    private static boolean matches(ByteBuffer buf, File csv) {
+        byte[] name = new byte[buf.getInt()];
+        buf.get(name);
+        long length = buf.getLong();
+        long modified = buf.getLong();
+        return csv.isFile() && new String(name, UTF8).equals(csv.getName())
+                && length == csv.length() && modified == csv.lastModified();
+    }
+
+    /**
+     * @brief write n rows of int columns
+     */
+    private static void writeColumns(DataOutputStream out, int n, int[][] columns) throws IOException {
+        out.writeInt(n);
+        for (int[] column : columns) {
+            for (int i = 0; i < n; i++) out.writeInt(column[i]);
+        }
+    }
+
+    /**
+     * @brief read count columns of n ints each
+     */
+    private static int[][] columns(ByteBuffer buf, int n, int count) {
+        int[][] columns = new int[count][n];
+        for (int[] column : columns) {
+            IntBuffer ints = buf.asIntBuffer();
+            ints.get(column);
+            buf.position(buf.position() + 4 * n);
+        }
+        return columns;
+    }
+
+    /**
+     * @brief Maps the ids of the snapshot dictionary to the ids of one field Dictionary
+     * @details each snapshot id is looked up in the Dictionary the first time it is used
+     */
+    private static class Translation {
+        private final Dictionary dictionary;
+        private final String[] values;  // the snapshot dictionary
+        private final int[] ids;        // ids[i] = id in dictionary of values[i], -1 if not looked up yet
+        private int[] days;             // days[i] = values[i] parsed as a date, if parsed[i]
+        private boolean[] parsed;
+
+        Translation(Dictionary dictionary, String[] values) {
+            this.dictionary = dictionary;
+            this.values = values;
+            ids = new int[values.length];
+            Arrays.fill(ids, -1);
+        }
+
+        int id(int snapshotId) {
+            int id = ids[snapshotId];
+            if (id < 0) id = ids[snapshotId] = dictionary.id(values[snapshotId]);
+            return id;
+        }
+
+        String canonical(int snapshotId) {
+            return dictionary.get(id(snapshotId));
+        }
+
+        int day(int snapshotId) {
+            if (days == null) {
+                days = new int[values.length];
+                parsed = new boolean[values.length];
+            }
+            if (!parsed[snapshotId]) {
+                days[snapshotId] = ActivityDate.epochDay(values[snapshotId]);
+                parsed[snapshotId] = true;
+            }
+            return days[snapshotId];
+        }
+    }
+
+    /**
+     * @brief Build the snapshot of the data sets ahead of time.
+     * @param args The violations csv file, the inspections csv file, and optionally
+     * the snapshot file, which defaults to SafeFoods.snapshot next to the violations file.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: java search.Snapshot violations.csv inspections.csv [snapshot]");
+            System.exit(1);
+        }
+        File violationsFile = new File(args[0]);
+        File inspectionsFile = new File(args[1]);
+        File snapshotFile = args.length > 2 ? new File(args[2]) : fileFor(violationsFile);
+        Snapshot snapshot = build(violationsFile, inspectionsFile);
+        snapshot.write(snapshotFile, violationsFile, inspectionsFile);
+        System.out.println("wrote " + snapshot.violations.length + " violations and "
+                + snapshot.inspections.length + " inspections to " + snapshotFile);
+    }
+}
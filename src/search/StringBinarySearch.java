@@ -11,6 +11,8 @@ import java.util.ArrayList;
 
 /** 
 *   @brief Module that contains the FindRestaurant driver
+*   @details upperBound searches an array of inspections sorted by facility name
+*   directly, so no list of names has to be built to search it
 **/
 class StringBinarySearch { 
   
@@ -62,4 +64,22 @@ class StringBinarySearch {
     public int getIndex() {
     	return index;
     }
+
+    /**
+	 * @brief find the first inspection in in[from, to) whose facility name is greater than x
+	 * @details in must be sorted by facility name first, as Inspection.BY_NAME_ADDRESS_DATE orders it
+	 * @param in, the inspections to be searched through
+	 * @param from, the first index searched
+	 * @param to, the index after the last index searched
+	 * @param x, the facility name to be searched for
+	 * @return the index after the last inspection of x, to if no name is greater than x
+	 */
+    public static int upperBound(Inspection[] in, int from, int to, String x) {
+        while (from < to) {
+            int m = (from + to) >>> 1;
+            if (in[m].getFacilityName().compareTo(x) <= 0) from = m + 1;
+            else to = m;
+        }
+        return from;
+    }
 } 
@@ -9,30 +9,52 @@
 package search;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.io.File;
-import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.FileNotFoundException;
+import java.nio.file.NoSuchFileException;
+
+import parse.CsvReader;
+import parse.MappedCsv;
 
 /**
  * @brief Violation ADT that stores the information regarding a restaurants violation.
  */
-public class Violation implements Comparable<Violation> {
+public class Violation implements Comparable<Violation>, Dated {
+
+    //Strings are shared with every record of the same value, the other fields are ids into a Dictionary
+    private final Dictionaries dictionaries;
+    private final String activityDate;
+    private final int activityDay;      // activityDate as days since 1970-01-01, parsed once
+    private final int facilityZip;
+    private final String facilityAddress;
+    private final String facilityName;
+    private final int violationCode;
+    private final int serviceDescription;
+    private final int points;
+    private final int grade;
+    private final int score;
+    private final int violationDescription;
 
-    private String activityDate;
-    private String facilityZip;
-    private String facilityAddress;
-    private String facilityName;
-    private String violationCode;
-    private String serviceDescription;
-    private int points;
-    private String grade;
-    private int score;
-    private String violationDescription;
+    /**
+     * @brief Orders violations by restaurant name, then address, then date with the
+     * most recent first, so the records of one address are next to each other.
+     */
+    public static final Comparator<Violation> BY_NAME_ADDRESS_DATE = new Comparator<Violation>() {
+        public int compare(Violation a, Violation b) {
+            int c = a.facilityName.compareTo(b.facilityName);
+            if (c != 0) return c;
+            c = a.facilityAddress.compareTo(b.facilityAddress);
+            if (c != 0) return c;
+            return Integer.compare(b.activityDay, a.activityDay);
+        }
+    };
 
     /**
      * @brief Violation ADT constructor.
+     * @param dictionaries The dictionaries of the records loaded with this one.
      * @param date The date of the violation.
      * @param zip The zip code of the restaurant.
      * @param address The address of the restaurant.
@@ -44,8 +66,31 @@ public class Violation implements Comparable<Violation> {
      * @param score The score out of 100 of a restaurant.
      * @param violation The violation description.
      */
-    public Violation(String date, String zip, String address, String name, String code, String service, int points, String grade, int score, String violation) {
+    public Violation(Dictionaries dictionaries, String date, String zip, String address, String name, String code, String service, int points, String grade, int score, String violation) {
+        this(dictionaries, dictionaries.dates.canonical(date), ActivityDate.epochDay(date), dictionaries.zips.id(zip), dictionaries.addresses.canonical(address),
+                dictionaries.names.canonical(name), dictionaries.codes.id(code), dictionaries.services.id(service),
+                points, dictionaries.grades.id(grade), score, dictionaries.descriptions.id(violation));
+    }
+
+    /**
+     * @brief Violation ADT constructor for values that are already in the dictionaries.
+     * @param dictionaries The dictionaries the ids and shared Strings are from.
+     * @param date The shared String of the date, from dictionaries.dates.
+     * @param day The date as days since 1970-01-01, as ActivityDate.epochDay gives.
+     * @param zip The id of the zip code in dictionaries.zips.
+     * @param address The shared String of the address, from dictionaries.addresses.
+     * @param name The shared String of the name, from dictionaries.names.
+     * @param code The id of the violation code in dictionaries.codes.
+     * @param service The id of the service description in dictionaries.services.
+     * @param points The number of points lost.
+     * @param grade The id of the letter grade in dictionaries.grades.
+     * @param score The score out of 100 of a restaurant.
+     * @param violation The id of the violation description in dictionaries.descriptions.
+     */
+    Violation(Dictionaries dictionaries, String date, int day, int zip, String address, String name, int code, int service, int points, int grade, int score, int violation) {
+        this.dictionaries = dictionaries;
         this.activityDate = date;
+        this.activityDay = day;
         this.facilityZip = zip;
         this.facilityAddress = address;
         this.facilityName = name;
@@ -54,54 +99,50 @@ public class Violation implements Comparable<Violation> {
         this.points = points;
         this.grade = grade;
         this.score = score;
-        this.violationDescription = violation; 
+        this.violationDescription = violation;
     }
 
     /**
      * @brief Given a csv file of violations of many restaurants, return an array of Violation.
-     * The csv parser was based on an implementation by Stack Overflow - Bart Kiers CSV Parser.
+     * The file is read with the shared CsvReader.
      * @param violationFile The file of the violations.
      * @exception IOException Generated if the bufferReader fails to read the file.
      * @return The array of violations of all restaurants.
      */
     public static Violation [] violationFileToArray(File violationFile) throws IOException {
+        return violationFileToArray(violationFile, new Dictionaries());
+    }
+
+    /**
+     * @brief Given a csv file of violations of many restaurants, return an array of Violation
+     * whose values are added to the given dictionaries.
+     * @param violationFile The file of the violations.
+     * @param dictionaries The dictionaries shared with the records loaded together.
+     * @exception IOException Generated if the bufferReader fails to read the file.
+     * @return The array of violations of all restaurants.
+     */
+    public static Violation [] violationFileToArray(File violationFile, Dictionaries dictionaries) throws IOException {
         //Store violations
         ArrayList<Violation> violations = new ArrayList<Violation>();
 
         try {
-		    String line;
-		
-		    BufferedReader br = new BufferedReader(new FileReader(violationFile));
-		    String otherThanQuote = " [^\"] ";
-	        String quotedString = String.format(" \" %s* \" ", otherThanQuote);
-	        String regex = String.format("(?x) "+ // enable comments, ignore white spaces
-	                ",                         "+ // match a comma
-	                "(?=                       "+ // start positive look ahead
-	                "  (?:                     "+ //   start non-capturing group 1
-	                "    %s*                   "+ //     match 'otherThanQuote' zero or more times
-	                "    %s                    "+ //     match 'quotedString'
-	                "  )*                      "+ //   end group 1 and repeat it zero or more times
-	                "  %s*                     "+ //   match 'otherThanQuote'
-	                "  $                       "+ // match the end of the string
-	                ")                         ", // stop positive look ahead
-	                otherThanQuote, quotedString, otherThanQuote);
-        
+            CsvReader csv = new CsvReader(new FileReader(violationFile));
+
             //Read the header of the file
-            br.readLine();
+            csv.next();
 
             //Read until file is empty
-		    while ((line = br.readLine()) != null) {
-                //Split by commas
-                String[] fields = line.split(regex, -1);
+            while (csv.next()) {
+                if (csv.isBlank()) continue;
                    
                 //Create Violation object using data read
-                Violation v = new Violation(fields[0],fields[1],fields[2],fields[3],fields[4],fields[5],Integer.parseInt(fields[6]),fields[7],Integer.parseInt(fields[8]), fields[9]);
+                Violation v = new Violation(dictionaries, csv.field(0),csv.field(1),csv.field(2),csv.field(3),csv.field(4),csv.field(5),csv.intField(6),csv.field(7),csv.intField(8), csv.field(9));
                 
                 //Add Violation object to arraylist
                 violations.add(v);
             }
 
-            br.close();
+            csv.close();
         } catch (FileNotFoundException e) {
             e.printStackTrace();
         }	
@@ -115,6 +156,46 @@ public class Violation implements Comparable<Violation> {
         return violationArray;
     }
 
+    /**
+     * @brief Given a csv file of violations of many restaurants, return an array of Violation.
+     * @detail Same result as violationFileToArray, but the file is memory mapped and
+     * parsed in parallel with MappedCsv, so loading is faster on several cores. The
+     * text fields are looked up in the dictionaries from their bytes, so a value is
+     * decoded once per chunk of the file instead of once per row.
+     * @param violationFile The file of the violations.
+     * @exception IOException Generated if the file cannot be read.
+     * @return The array of violations of all restaurants.
+     */
+    public static Violation [] mapViolationFile(File violationFile) throws IOException {
+        return mapViolationFile(violationFile, new Dictionaries());
+    }
+
+    /**
+     * @brief Same as mapViolationFile, with the values added to the given dictionaries.
+     * @param violationFile The file of the violations.
+     * @param dictionaries The dictionaries shared with the records loaded together.
+     * @exception IOException Generated if the file cannot be read.
+     * @return The array of violations of all restaurants.
+     */
+    public static Violation [] mapViolationFile(File violationFile, final Dictionaries dictionaries) throws IOException {
+        ArrayList<Violation> violations = new ArrayList<Violation>();
+        try {
+            violations = MappedCsv.parse(violationFile, new MappedCsv.RowParser<Violation>() {
+                public Violation parse(MappedCsv.Row row) {
+                    String date = dictionaries.dates.get(row.id(0, dictionaries.dates));
+                    return new Violation(dictionaries, date, ActivityDate.epochDay(date), row.id(1, dictionaries.zips),
+                            dictionaries.addresses.get(row.id(2, dictionaries.addresses)), dictionaries.names.get(row.id(3, dictionaries.names)),
+                            row.id(4, dictionaries.codes), row.id(5, dictionaries.services), row.intField(6),
+                            row.id(7, dictionaries.grades), row.intField(8), row.id(9, dictionaries.descriptions));
+                }
+            });
+        } catch (NoSuchFileException e) {
+            e.printStackTrace();
+        }
+
+        return violations.toArray(new Violation[violations.size()]);
+    }
+
     /**
      * @brief Return the restaurant's violation date.
      * @return Violation activity date.
@@ -123,12 +204,20 @@ public class Violation implements Comparable<Violation> {
         return this.activityDate;
     }
 
+    /**
+     * @brief Return the violation date as a day number.
+     * @return Days since 1970-01-01, ActivityDate.UNKNOWN if the date could not be parsed.
+     */
+    public int getActivityDay() {
+        return activityDay;
+    }
+
     /**
      * @brief Return the restaurant's zip code.
      * @return Restaurant's zip code.
      */
     public String getFacilityZip() {
-        return facilityZip;
+        return dictionaries.zips.get(facilityZip);
     }
 
     /**
@@ -152,7 +241,7 @@ public class Violation implements Comparable<Violation> {
      * @return Restaurant's violation code.
      */
     public String getViolationCode() {
-        return violationCode;
+        return dictionaries.codes.get(violationCode);
     }
 
     /**
@@ -160,7 +249,7 @@ public class Violation implements Comparable<Violation> {
      * @return Restaurant's violation description.
      */
     public String getViolationDescription() {
-        return violationDescription;
+        return dictionaries.descriptions.get(violationDescription);
     }
 
     /**
@@ -168,7 +257,7 @@ public class Violation implements Comparable<Violation> {
      * @return Restaurant service description.
      */
     public String getServiceDescription() {
-        return serviceDescription;
+        return dictionaries.services.get(serviceDescription);
     }  
 
     /**
@@ -184,7 +273,7 @@ public class Violation implements Comparable<Violation> {
      * @return Restaurant's letter grade.
      */
     public String getGrade() {
-        return grade;
+        return dictionaries.grades.get(grade);
     }
 
     /**
@@ -200,7 +289,7 @@ public class Violation implements Comparable<Violation> {
      * @return String that has the information of a violation.
      */
     public String toString() {
-        return activityDate + "," +facilityZip+ "," +facilityAddress+ "," +facilityName + ","  +violationCode+ "," +serviceDescription+ "," +points+ "," +grade+ "," +score+"," +violationDescription;
+        return activityDate + "," +getFacilityZip()+ "," +facilityAddress+ "," +facilityName + ","  +getViolationCode()+ "," +getServiceDescription()+ "," +points+ "," +getGrade()+ "," +score+"," +getViolationDescription();
     }
 
     /**
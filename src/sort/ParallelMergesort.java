@@ -0,0 +1,146 @@
+/**
+ * Author: SafeFoods
+ * Revised: October 17, 2026
+ *
+ * Description: This module is used to perform a stable merge sort on an
+ * array, sorting the halves of large arrays on different cores.
+ */
+
+package sort;
+
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * @brief Sorting an array using a parallel, stable merge sort.
+ * @details Subarrays shorter than CUTOFF are sorted with insertion sort, larger ones
+ * are split in half and the halves sorted as fork join tasks on the common pool. A
+ * merge is skipped when the halves are already in order, so sorted input takes linear
+ * time. Equal items keep their order, and the running time is O(n log n) whatever
+ * the input, unlike Quicksort.
+ */
+public class ParallelMergesort {
+
+    private static final int CUTOFF = 16;               // size below which insertion sort is used
+    private static final int SEQUENTIAL = 1 << 13;      // size below which halves are sorted on the same thread
+
+    /**
+     * @brief Rearranges the array in ascending order, using the natural order.
+     * @param a The array to be sorted.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static void sort(Comparable[] a) {
+        sort(a, (Comparator) NATURAL);
+    }
+
+    /**
+     * @brief Rearranges the array in ascending order, using a comparator.
+     * @param a The array to be sorted.
+     * @param c The comparator that defines the order.
+     */
+    public static <T> void sort(T[] a, Comparator<? super T> c) {
+        if (a.length < 2) return;
+        T[] aux = a.clone();
+        if (a.length < SEQUENTIAL) sort(a, aux, 0, a.length - 1, c);
+        else ForkJoinPool.commonPool().invoke(new SortTask<T>(a, aux, 0, a.length - 1, c));
+    }
+
+    /**
+     * @brief Merge sort the subarray from a[lo] to a[hi] on this thread.
+     * @param a The array to be sorted.
+     * @param aux Scratch array of the same length.
+     * @param lo The lower index.
+     * @param hi The higher index.
+     * @param c The comparator that defines the order.
+     */
+    private static <T> void sort(T[] a, T[] aux, int lo, int hi, Comparator<? super T> c) {
+        if (hi - lo < CUTOFF) {
+            insertionSort(a, lo, hi, c);
+            return;
+        }
+        int mid = lo + (hi - lo) / 2;
+        sort(a, aux, lo, mid, c);
+        sort(a, aux, mid + 1, hi, c);
+        merge(a, aux, lo, mid, hi, c);
+    }
+
+    /**
+     * @brief Merge the sorted subarrays a[lo..mid] and a[mid+1..hi].
+     * @details Items of the left half go first when equal, which keeps the sort stable.
+     * @param a The array to be sorted.
+     * @param aux Scratch array of the same length.
+     * @param lo The lower index.
+     * @param mid The last index of the left half.
+     * @param hi The higher index.
+     * @param c The comparator that defines the order.
+     */
+    private static <T> void merge(T[] a, T[] aux, int lo, int mid, int hi, Comparator<? super T> c) {
+        if (c.compare(a[mid], a[mid + 1]) <= 0) return;     // halves already in order
+        System.arraycopy(a, lo, aux, lo, hi - lo + 1);
+        int i = lo, j = mid + 1;
+        for (int k = lo; k <= hi; k++) {
+            if      (i > mid)                           a[k] = aux[j++];
+            else if (j > hi)                            a[k] = aux[i++];
+            else if (c.compare(aux[j], aux[i]) < 0)     a[k] = aux[j++];
+            else                                        a[k] = aux[i++];
+        }
+    }
+
+    /**
+     * @brief Sort the subarray from a[lo] to a[hi] with insertion sort.
+     * @param a The array to be sorted.
+     * @param lo The lower index.
+     * @param hi The higher index.
+     * @param c The comparator that defines the order.
+     */
+    private static <T> void insertionSort(T[] a, int lo, int hi, Comparator<? super T> c) {
+        for (int i = lo + 1; i <= hi; i++) {
+            T v = a[i];
+            int j = i;
+            while (j > lo && c.compare(v, a[j - 1]) < 0) {
+                a[j] = a[j - 1];
+                j--;
+            }
+            a[j] = v;
+        }
+    }
+
+    /**
+     * @brief Fork join task that sorts the subarray from a[lo] to a[hi].
+     */
+    private static class SortTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final T[] a, aux;
+        private final int lo, hi;
+        private final Comparator<? super T> c;
+
+        SortTask(T[] a, T[] aux, int lo, int hi, Comparator<? super T> c) {
+            this.a = a;
+            this.aux = aux;
+            this.lo = lo;
+            this.hi = hi;
+            this.c = c;
+        }
+
+        protected void compute() {
+            if (hi - lo < SEQUENTIAL) {
+                sort(a, aux, lo, hi, c);
+                return;
+            }
+            int mid = lo + (hi - lo) / 2;
+            invokeAll(new SortTask<T>(a, aux, lo, mid, c), new SortTask<T>(a, aux, mid + 1, hi, c));
+            merge(a, aux, lo, mid, hi, c);
+        }
+    }
+
+    /**
+     * @brief The natural order of Comparable objects.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static final Comparator<Comparable> NATURAL = new Comparator<Comparable>() {
+        public int compare(Comparable v, Comparable w) {
+            return v.compareTo(w);
+        }
+    };
+}
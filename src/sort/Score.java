@@ -10,7 +10,7 @@
 
 package sort;
 
-import java.util.ArrayList;
+import java.util.List;
 
 import search.Inspection;
 import search.Violation;
@@ -23,11 +23,11 @@ public class Score {
     /**
      * @brief Given a series of restaurant violations and inspections, use their score,
      * points, and grade to return a calculated SafeFoods score.
-     * @param v The arraylist of violation of the restaurant.
-     * @param i The arraylist inspection of the restaurant.
+     * @param v The list of violation of the restaurant.
+     * @param i The list of inspection of the restaurant.
      * @return The SafeFood calculated score.
      */
-    public static int safeFoodScore(ArrayList<Violation> violationList, ArrayList<Inspection> inspectionList) {
+    public static int safeFoodScore(List<Violation> violationList, List<Inspection> inspectionList) {
         int safeFoodScore = 0;
         
         for(Violation v : violationList) {
@@ -40,7 +40,7 @@ public class Score {
             //Violation point
             int vPoint = v.getPoints();
 
-            safeFoodScore += (vScore + vGrade + vPoint)/3;
+            safeFoodScore += violationTerm(vScore, vGrade, vPoint);
         }
 
         for(Inspection i : inspectionList) {
@@ -50,7 +50,7 @@ public class Score {
             //Inspection grade
             int iGrade = gradeToScore(i.getGrade());
 
-            safeFoodScore += (iScore + iGrade)/2;
+            safeFoodScore += inspectionTerm(iScore, iGrade);
         }
 
         //Scale based on number of violations and inspections
@@ -59,12 +59,64 @@ public class Score {
         return safeFoodScore;
     }
 
+    /**
+     * @brief Calculate the SafeFoods score of a range of rows of a columnar store.
+     * @details Gives the same score as the list form, with the grade of each row
+     * looked up in a table instead of compared as a String.
+     * @param vScore The score of each violation row.
+     * @param vPoints The points of each violation row.
+     * @param vGrade The grade id of each violation row.
+     * @param vFrom The first violation row.
+     * @param vTo The row after the last violation row.
+     * @param iScore The score of each inspection row.
+     * @param iGrade The grade id of each inspection row.
+     * @param iFrom The first inspection row.
+     * @param iTo The row after the last inspection row.
+     * @param gradeScores The score of each grade id, as given by gradeToScore.
+     * @return The SafeFood calculated score.
+     */
+    public static int safeFoodScore(int[] vScore, int[] vPoints, byte[] vGrade, int vFrom, int vTo,
+            int[] iScore, byte[] iGrade, int iFrom, int iTo, int[] gradeScores) {
+        int safeFoodScore = 0;
+        for (int r = vFrom; r < vTo; r++) {
+            safeFoodScore += violationTerm(vScore[r], gradeScores[vGrade[r] & 0xFF], vPoints[r]);
+        }
+        for (int r = iFrom; r < iTo; r++) {
+            safeFoodScore += inspectionTerm(iScore[r], gradeScores[iGrade[r] & 0xFF]);
+        }
+        return safeFoodScore / ((vTo - vFrom) + (iTo - iFrom));
+    }
+
+    /**
+     * @brief Return what one violation adds to the total of a SafeFoods score.
+     * @details The SafeFoods score is the total of the terms of every violation and
+     * inspection divided by their number, so it can be kept up to date as records
+     * are added by keeping the total and the number.
+     * @param score The score of the violation.
+     * @param gradeScore The grade of the violation, as given by gradeToScore.
+     * @param points The points of the violation.
+     * @return The term of the violation.
+     */
+    public static int violationTerm(int score, int gradeScore, int points) {
+        return (score + gradeScore + points)/3;
+    }
+
+    /**
+     * @brief Return what one inspection adds to the total of a SafeFoods score.
+     * @param score The score of the inspection.
+     * @param gradeScore The grade of the inspection, as given by gradeToScore.
+     * @return The term of the inspection.
+     */
+    public static int inspectionTerm(int score, int gradeScore) {
+        return (score + gradeScore)/2;
+    }
+
     /**
      * @brief Return a score given a letter grade based on the SafeFoods scale.
      * @param grade The letter grade to convert.
      * @return The score based on the letter grade.
      */
-    private static int gradeToScore(String grade) {
+    public static int gradeToScore(String grade) {
         if(grade.equals("A")){
             return 100;
         } else if(grade.equals("B")){